@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.SAXException;
+
+/**
+ * Micro benchmarks of {@link ContentAutomaton} over the content models of
+ * a {@link DTDCorpus}, each checked against valid child sequences got by
+ * random walks of its automaton: {@code accepts} steps through symbols,
+ * {@code acceptsNames} looks up the names first, and {@code compile}
+ * builds the automata of all the models.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ContentAutomatonBenchmark {
+
+    private static final int SEQUENCES = 64;
+    private static final int MAX_LENGTH = 32;
+
+    @Param({"docbook", "tei"})
+    public String corpus;
+
+    private ContentModel[] models;
+    // by model: the sequences, as symbols and as names
+    private ContentAutomaton[] automata;
+    private int[][][] symbols;
+    private String[][][] names;
+
+    @Setup
+    public void setup() throws IOException, SAXException {
+        DTDCorpus dtd = DTDCorpus.load(corpus);
+        DTDModelBuilder builder = new DTDModelBuilder();
+        DTDParser parser = new DTDParser();
+        parser.setEntityResolver(dtd.resolver());
+        parser.setDtdHandler(builder);
+        parser.parse(dtd.open());
+
+        List<ContentModel> found = new ArrayList<>();
+        for (DTDModel.Element e : builder.getModel().getElements()) {
+            if (e.getContentModel() != null) {
+                found.add(e.getContentModel());
+            }
+        }
+        models = found.toArray(new ContentModel[0]);
+        automata = new ContentAutomaton[models.length];
+        symbols = new int[models.length][SEQUENCES][];
+        names = new String[models.length][SEQUENCES][];
+
+        Random random = new Random(42);
+        for (int m = 0; m < models.length; m++) {
+            ContentAutomaton a = models[m].getAutomaton();
+            automata[m] = a;
+            for (int s = 0; s < SEQUENCES; s++) {
+                int[] walk = walk(a, random);
+                symbols[m][s] = walk;
+                names[m][s] = new String[walk.length];
+                for (int i = 0; i < walk.length; i++) {
+                    names[m][s][i] = a.getName(walk[i]);
+                }
+            }
+        }
+    }
+
+    // a valid sequence, ending as soon as it may once it's long enough
+    private static int[] walk(ContentAutomaton a, Random random) {
+        int[] walk = new int[MAX_LENGTH];
+        int length = 0;
+        int want = random.nextInt(MAX_LENGTH);
+        int state = a.getStartState();
+        while (!(a.isFinal(state) && length >= want)) {
+            int[] next = new int[a.getSymbolCount()];
+            int count = 0;
+            for (int symbol = 0; symbol < next.length; symbol++) {
+                if (a.step(state, symbol) != ContentAutomaton.REJECT) {
+                    next[count++] = symbol;
+                }
+            }
+            if (count == 0 || length == MAX_LENGTH) {
+                break;
+            }
+            walk[length++] = next[random.nextInt(count)];
+            state = a.step(state, walk[length - 1]);
+        }
+        return Arrays.copyOf(walk, length);
+    }
+
+    @Benchmark
+    public void accepts(Blackhole bh) {
+        for (int m = 0; m < automata.length; m++) {
+            ContentAutomaton a = automata[m];
+            for (int[] children : symbols[m]) {
+                bh.consume(a.accepts(children, 0, children.length));
+            }
+        }
+    }
+
+    @Benchmark
+    public void acceptsNames(Blackhole bh) {
+        for (int m = 0; m < automata.length; m++) {
+            ContentAutomaton a = automata[m];
+            for (String[] children : names[m]) {
+                bh.consume(a.accepts(children));
+            }
+        }
+    }
+
+    @Benchmark
+    public void compile(Blackhole bh) {
+        for (ContentModel model : models) {
+            bh.consume(ContentAutomaton.compile(model));
+        }
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+/**
+ * In-memory DTD corpus used by the benchmarks.
+ *
+ * <P> The named corpora are generated, so no third party DTDs need to be
+ * shipped, but they mimic the shape and size of the real thing:
+ * <UL>
+ * <LI> {@code docbook} ... DocBook 4 style, one large file with conditional
+ *      sections around every declaration and a big character entity set;</LI>
+ * <LI> {@code xhtml} ... XHTML 1.1 style, a driver DTD pulling in a dozen
+ *      external modules through parameter entities;</LI>
+ * <LI> {@code tei} ... TEI sized, several hundred elements spread over
+ *      modules, with attribute classes and deep content models;</LI>
+ * <LI> {@code pe-heavy} ... synthetic, chains of nested parameter entity
+ *      references in content models and attribute lists.</LI>
+ * </UL>
+ *
+ * <P> Any other name of the form {@code file:path} loads a DTD from disk;
+ * external entities are then resolved the usual way, relative to the file.
+ */
+final class DTDCorpus {
+
+    static final String BASE = "corpus:/";
+
+    private final String systemId;
+    private final byte[] document;
+    private final Map<String, byte[]> modules;
+
+    private DTDCorpus(String systemId, byte[] document, Map<String, byte[]> modules) {
+        this.systemId = systemId;
+        this.document = document;
+        this.modules = modules;
+    }
+
+    /**
+     * Returns the corpus with the given name.
+     */
+    static DTDCorpus load(String name) throws IOException {
+        if (name.startsWith("file:")) {
+            File file = new File(name.substring(5)).getAbsoluteFile();
+            return new DTDCorpus(file.toURI().toString(),
+                    Files.readAllBytes(file.toPath()), null);
+        }
+        Generator g = new Generator(name);
+        switch (name) {
+            case "docbook":
+                g.docbook(420, 1800);
+                break;
+            case "xhtml":
+                g.xhtml(12, 8, 250);
+                break;
+            case "tei":
+                g.tei(24, 24);
+                break;
+            case "pe-heavy":
+                g.peHeavy(64, 24);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown corpus: " + name);
+        }
+        return g.toCorpus();
+    }
+
+    /**
+     * Returns a fresh input source over the main document.
+     */
+    InputSource open() {
+        InputSource in = new InputSource(new ByteArrayInputStream(document));
+        in.setSystemId(systemId);
+        return in;
+    }
+
+    /**
+     * Returns the main document bytes.
+     */
+    byte[] bytes() {
+        return document;
+    }
+
+    /**
+     * Returns the main document, decoded.
+     */
+    char[] chars() throws IOException {
+        StringBuilder sb = new StringBuilder(document.length);
+        char[] chunk = new char[8 * 1024];
+        try (Reader r = XmlReader.createReader(new ByteArrayInputStream(document))) {
+            for (int len; (len = r.read(chunk, 0, chunk.length)) >= 0; ) {
+                sb.append(chunk, 0, len);
+            }
+        }
+        return sb.toString().toCharArray();
+    }
+
+    /**
+     * Returns the distinct XML names occurring in the main document,
+     * in order of first appearance.
+     */
+    char[][] names() throws IOException {
+        char[] text = chars();
+        Set<String> distinct = new LinkedHashSet<>();
+        for (int i = 0; i < text.length; ) {
+            int end = i;
+            while (end < text.length && XmlChars.isNameChar(text[end])) {
+                end++;
+            }
+            if (end > i) {
+                distinct.add(new String(text, i, end - i));
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        char[][] names = new char[distinct.size()][];
+        int i = 0;
+        for (String n : distinct) {
+            names[i++] = n.toCharArray();
+        }
+        return names;
+    }
+
+    /**
+     * Returns the total size of the corpus in bytes, modules included.
+     */
+    long size() {
+        long size = document.length;
+        if (modules != null) {
+            for (byte[] m : modules.values()) {
+                size += m.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns a resolver serving the external modules from memory.
+     */
+    EntityResolver resolver() {
+        if (modules == null) {
+            return new Resolver();
+        }
+        return (publicId, uri) -> {
+            byte[] data = modules.get(uri);
+            if (data == null) {
+                return null;
+            }
+            InputSource in = new InputSource(new ByteArrayInputStream(data));
+            in.setPublicId(publicId);
+            in.setSystemId(uri);
+            return in;
+        };
+    }
+
+    //
+    // Deterministic generator for the synthetic corpora.
+    //
+    private static final class Generator {
+
+        private static final String[] SYLLABLES = {
+            "ab", "act", "add", "al", "an", "ar", "auth", "bib", "bl", "call",
+            "cap", "cit", "col", "con", "cor", "data", "def", "desc", "div",
+            "ed", "el", "em", "ent", "ex", "fig", "foot", "form", "gl", "gr",
+            "head", "id", "in", "item", "key", "label", "lang", "lin", "list",
+            "mark", "med", "mem", "msg", "name", "note", "ob", "opt", "org",
+            "para", "part", "ph", "pro", "quot", "ref", "rev", "row", "sect",
+            "seg", "ser", "set", "sig", "spec", "step", "sub", "sym", "tab",
+            "term", "tit", "type", "un", "var", "word", "xref"
+        };
+
+        private final String name;
+        private final Random random;
+        private final Map<String, byte[]> modules = new HashMap<>();
+        private final Map<String, Boolean> used = new HashMap<>();
+        private StringBuilder out = new StringBuilder(64 * 1024);
+
+        Generator(String name) {
+            this.name = name;
+            this.random = new Random(name.hashCode());
+        }
+
+        DTDCorpus toCorpus() {
+            byte[] main = out.toString().getBytes(StandardCharsets.UTF_8);
+            return new DTDCorpus(BASE + name + "/" + name + ".dtd", main,
+                    modules.isEmpty() ? null : modules);
+        }
+
+        private String word() {
+            String w;
+            do {
+                StringBuilder sb = new StringBuilder();
+                int n = 1 + random.nextInt(3);
+                for (int i = 0; i < n; i++) {
+                    sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                if (random.nextInt(6) == 0) {
+                    sb.append(random.nextBoolean() ? '.' : '-').append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                w = sb.toString();
+            } while (used.put(w, Boolean.TRUE) != null);
+            return w;
+        }
+
+        private String[] words(int n) {
+            String[] w = new String[n];
+            for (int i = 0; i < n; i++) {
+                w[i] = word();
+            }
+            return w;
+        }
+
+        private void comment(String text) {
+            out.append("\n<!-- ").append(text).append(" -->\n\n");
+        }
+
+        private void join(String[] names, int from, int to, String sep) {
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    out.append(sep);
+                }
+                out.append(names[i]);
+            }
+        }
+
+        private void characterEntities(int count) {
+            comment("Character entities, in the style of the ISO 8879 entity sets");
+            for (String e : words(count)) {
+                out.append("<!ENTITY ").append(e).append(" \"&#x")
+                        .append(Integer.toHexString(0xA0 + random.nextInt(0x2000)))
+                        .append(";\" ><!-- ").append(e.toUpperCase(Locale.ROOT))
+                        .append(" -->\n");
+            }
+        }
+
+        private void commonAttributes(String pe) {
+            out.append("<!ENTITY % local.").append(pe).append(" \"\">\n");
+            out.append("<!ENTITY % ").append(pe).append("\n")
+                    .append("\t\"id\t\tID\t\t#IMPLIED\n")
+                    .append("\tlang\t\tCDATA\t\t#IMPLIED\n")
+                    .append("\tremap\t\tCDATA\t\t#IMPLIED\n")
+                    .append("\trole\t\tCDATA\t\t#IMPLIED\n")
+                    .append("\txreflabel\tCDATA\t\t#IMPLIED\n")
+                    .append("\trevisionflag\t(changed|added|deleted|off)\t#IMPLIED\n")
+                    .append("\t%local.").append(pe).append(";\">\n");
+        }
+
+        private void attributes(String element, String common) {
+            out.append("<!ATTLIST ").append(element).append("\n\t\t%").append(common).append(";\n");
+            int n = random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                out.append("\t\t").append(word()).append('\t');
+                switch (random.nextInt(5)) {
+                    case 0:
+                        out.append("(").append(word()).append('|').append(word()).append('|')
+                                .append(word()).append(")\t#IMPLIED\n");
+                        break;
+                    case 1:
+                        out.append("NMTOKEN\t\t#IMPLIED\n");
+                        break;
+                    case 2:
+                        out.append("IDREF\t\t#IMPLIED\n");
+                        break;
+                    case 3:
+                        out.append("CDATA\t\t#FIXED \"").append(word()).append("\"\n");
+                        break;
+                    default:
+                        out.append("CDATA\t\t\"").append(word()).append(' ').append(word()).append("\"\n");
+                        break;
+                }
+            }
+            out.append(">\n");
+        }
+
+        //
+        // DocBook: <![%x.element;[ ... ]]> around every declaration,
+        // inline/block classes as PEs, lots of character entities
+        //
+        void docbook(int elements, int characterEntities) {
+            out.append("<!-- ...................................................................... -->\n")
+                    .append("<!-- Synthetic DocBook-like DTD .......................................... -->\n");
+            characterEntities(characterEntities);
+
+            comment("Notations");
+            for (String n : words(20)) {
+                out.append("<!NOTATION ").append(n).append(" PUBLIC \"+//ISBN 0-201-18127-4::Adobe//NOTATION ")
+                        .append(n).append("//EN\">\n");
+            }
+
+            String[] names = words(elements);
+            int inline = elements / 3;
+            commonAttributes("common.attrib");
+            comment("Element classes");
+            out.append("<!ENTITY % local.inline.class \"\">\n<!ENTITY % inline.class \"");
+            join(names, 0, inline, "|");
+            out.append(" %local.inline.class;\">\n");
+            out.append("<!ENTITY % local.block.class \"\">\n<!ENTITY % block.class \"");
+            join(names, inline, inline + inline / 2, "|");
+            out.append(" %local.block.class;\">\n");
+            out.append("<!ENTITY % para.char.mix \"#PCDATA|%inline.class;\">\n");
+            out.append("<!ENTITY % component.mix \"%block.class;\">\n");
+
+            for (int i = 0; i < elements; i++) {
+                String e = names[i];
+                comment(e);
+                out.append("<!ENTITY % ").append(e).append(".element \"INCLUDE\">\n")
+                        .append("<![%").append(e).append(".element;[\n<!ELEMENT ").append(e).append(' ');
+                if (i < inline) {
+                    out.append("(%para.char.mix;)*");
+                } else if (i < inline + inline / 2) {
+                    out.append("(").append(names[inline + inline / 2 + random.nextInt(elements - inline - inline / 2)])
+                            .append("?, (%component.mix;)+)");
+                } else {
+                    out.append("((").append(names[random.nextInt(elements)]).append('|')
+                            .append(names[random.nextInt(elements)]).append(")*, (%component.mix;)*, ")
+                            .append(names[random.nextInt(elements)]).append("?)");
+                }
+                out.append(">\n<!--end of ").append(e).append(".element-->]]>\n");
+                out.append("<!ENTITY % ").append(e).append(".attlist \"INCLUDE\">\n")
+                        .append("<![%").append(e).append(".attlist;[\n");
+                attributes(e, "common.attrib");
+                out.append("<!--end of ").append(e).append(".attlist-->]]>\n");
+            }
+            out.append("<![IGNORE[\n<!ELEMENT obsolete (#PCDATA)>\n<!ATTLIST obsolete x CDATA #IMPLIED>\n]]>\n");
+        }
+
+        //
+        // XHTML: driver DTD referencing external modules
+        //
+        void xhtml(int moduleCount, int elementsPerModule, int characterEntities) {
+            StringBuilder driver = out;
+            String[] modNames = words(moduleCount);
+            String[][] elements = new String[moduleCount][];
+            for (int m = 0; m < moduleCount; m++) {
+                elements[m] = words(elementsPerModule);
+            }
+
+            driver.append("<!-- Synthetic XHTML-like modular DTD driver -->\n");
+            commonAttributes("Common.attrib");
+            driver.append("<!ENTITY % Inline.mix \"#PCDATA");
+            for (String[] es : elements) {
+                driver.append('|').append(es[0]).append('|').append(es[1]);
+            }
+            driver.append("\">\n<!ENTITY % Block.mix \"");
+            for (int m = 0; m < moduleCount; m++) {
+                if (m > 0) {
+                    driver.append('|');
+                }
+                driver.append(elements[m][2]);
+            }
+            driver.append("\">\n");
+
+            out = new StringBuilder();
+            characterEntities(characterEntities);
+            modules.put(BASE + name + "/xhtml-lat1.ent", out.toString().getBytes(StandardCharsets.UTF_8));
+            driver.append("<!ENTITY % xhtml-lat1 PUBLIC \"-//W3C//ENTITIES Latin 1 for XHTML//EN\" \"xhtml-lat1.ent\">\n%xhtml-lat1;\n");
+
+            for (int m = 0; m < moduleCount; m++) {
+                out = new StringBuilder();
+                out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+                out.append("<!-- ").append(modNames[m]).append(" module -->\n");
+                for (int i = 0; i < elementsPerModule; i++) {
+                    String e = elements[m][i];
+                    out.append("<!ENTITY % ").append(e).append(".element \"INCLUDE\">\n<![%")
+                            .append(e).append(".element;[\n<!ENTITY % ").append(e).append(".content ");
+                    if (i < 2) {
+                        out.append("\"( %Inline.mix; )*\"");
+                    } else if (i == 2) {
+                        out.append("\"( ").append(elements[m][3]).append(" | ").append(elements[m][4]).append(" )+\"");
+                    } else {
+                        out.append("\"( %Inline.mix; )*\"");
+                    }
+                    out.append(">\n<!ENTITY % ").append(e).append(".qname \"").append(e).append("\">\n")
+                            .append("<!ELEMENT %").append(e).append(".qname; %").append(e).append(".content;>\n")
+                            .append("<!-- end of ").append(e).append(".element -->]]>\n");
+                    attributes(e, "Common.attrib");
+                }
+                String sys = modNames[m] + "-1.mod";
+                modules.put(BASE + name + "/" + sys, out.toString().getBytes(StandardCharsets.UTF_8));
+                driver.append("<!ENTITY % ").append(modNames[m]).append(".module \"INCLUDE\">\n<![%")
+                        .append(modNames[m]).append(".module;[\n<!ENTITY % ").append(modNames[m])
+                        .append(".mod PUBLIC \"-//W3C//ELEMENTS XHTML ").append(modNames[m])
+                        .append(" 1.0//EN\" \"").append(sys).append("\" >\n%").append(modNames[m])
+                        .append(".mod;]]>\n");
+            }
+            out = driver;
+        }
+
+        //
+        // TEI: attribute classes and model classes as PEs, deep content models
+        //
+        void tei(int moduleCount, int elementsPerModule) {
+            StringBuilder driver = out;
+            driver.append("<!-- Synthetic TEI-sized DTD -->\n");
+            String[] attClasses = words(16);
+            for (String c : attClasses) {
+                driver.append("<!ENTITY % att.").append(c).append(".attributes\n\t'")
+                        .append(word()).append(" CDATA #IMPLIED\n\t").append(word())
+                        .append(" (yes|no|unknown) \"unknown\"\n\t").append(word())
+                        .append(" NMTOKENS #IMPLIED'>\n");
+            }
+            driver.append("<!ENTITY % att.global.attributes '");
+            for (String c : attClasses) {
+                driver.append(" %att.").append(c).append(".attributes;");
+            }
+            driver.append("'>\n");
+
+            String[][] elements = new String[moduleCount][];
+            String[] modelClasses = words(moduleCount);
+            for (int m = 0; m < moduleCount; m++) {
+                elements[m] = words(elementsPerModule);
+                driver.append("<!ENTITY % model.").append(modelClasses[m]).append(" \"");
+                join(elements[m], 0, elementsPerModule / 2, " | ");
+                driver.append("\">\n");
+            }
+            driver.append("<!ENTITY % macro.paraContent '(#PCDATA");
+            for (String c : modelClasses) {
+                driver.append(" | %model.").append(c).append(';');
+            }
+            driver.append(")*'>\n");
+
+            for (int m = 0; m < moduleCount; m++) {
+                out = new StringBuilder();
+                for (int i = 0; i < elementsPerModule; i++) {
+                    String e = elements[m][i];
+                    out.append("<!ENTITY % ").append(e).append(" 'INCLUDE' >\n<![ %").append(e)
+                            .append("; [\n<!--doc:").append(word()).append(' ').append(word())
+                            .append(' ').append(word()).append(" -->\n<!ELEMENT ").append(e).append(' ');
+                    if (i < elementsPerModule / 2) {
+                        out.append("%macro.paraContent;");
+                    } else {
+                        String[] other = elements[random.nextInt(moduleCount)];
+                        out.append("((").append(other[0]).append(" | ").append(other[1]).append(")*, (%model.")
+                                .append(modelClasses[random.nextInt(moduleCount)]).append(";)+, ((")
+                                .append(other[2]).append(", ").append(other[3]).append(") | %model.")
+                                .append(modelClasses[m]).append(";)*)");
+                    }
+                    out.append(">\n<!ATTLIST ").append(e).append(" xmlns CDATA \"http://www.tei-c.org/ns/1.0\"\n")
+                            .append(" %att.global.attributes;\n")
+                            .append(" ").append(word()).append(" CDATA #IMPLIED >\n]]>\n");
+                }
+                String sys = "tei" + m + ".dtd";
+                modules.put(BASE + name + "/" + sys, out.toString().getBytes(StandardCharsets.UTF_8));
+                driver.append("<!ENTITY % file.").append(m).append(" SYSTEM '").append(sys)
+                        .append("' >\n%file.").append(m).append(";\n");
+            }
+            out = driver;
+        }
+
+        //
+        // Parameter entity stress: chains of nested references
+        //
+        void peHeavy(int groups, int depth) {
+            out.append("<!-- Synthetic parameter entity heavy DTD -->\n");
+            String[][] chains = new String[groups][];
+            for (int g = 0; g < groups; g++) {
+                chains[g] = words(depth);
+                out.append("<!ENTITY % g").append(g).append("p0 \"").append(chains[g][0]).append("\">\n");
+                for (int d = 1; d < depth; d++) {
+                    out.append("<!ENTITY % g").append(g).append('p').append(d).append(" \"%g").append(g)
+                            .append('p').append(d - 1).append("; | ").append(chains[g][d]).append("\">\n");
+                }
+                out.append("<!ENTITY % g").append(g).append("atts \"a").append(g)
+                        .append(" CDATA #IMPLIED b").append(g).append(" (x|y|z) 'x'\">\n");
+            }
+            for (int g = 0; g < groups; g++) {
+                for (int d = 0; d < depth; d++) {
+                    String e = chains[g][d];
+                    out.append("<!ELEMENT ").append(e);
+                    if (d % 6 == 0) {
+                        out.append(" (#PCDATA | %g").append((g + 1) % groups).append('p')
+                                .append(depth - 1).append(";)*>\n");
+                    } else {
+                        out.append(" EMPTY>\n");
+                    }
+                    out.append("<!ATTLIST ").append(e).append(" %g").append(g).append("atts; %g")
+                            .append((g + 1) % groups).append("atts;>\n");
+                }
+            }
+            for (int g = 0; g < groups; g++) {
+                out.append("<!ENTITY % g").append(g).append("decl \"<!ELEMENT w").append(g)
+                        .append(" (%g").append(g).append('p').append(depth / 2).append(";)+>\">\n%g")
+                        .append(g).append("decl;\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmark of {@code XmlReader.Utf8Reader.read()}, decoding 256KB
+ * of DTD text per invocation: from memory ({@code utf8Read}), and from a
+ * file, read whole ({@code fileRead}) or streamed ({@code fileStreamRead}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class DecoderBenchmark {
+
+    /**
+     * {@code ascii} is pure ASCII markup, {@code latin} sprinkles two byte
+     * sequences through it, {@code cjk} is mostly three byte sequences.
+     */
+    @Param({"ascii", "latin", "cjk"})
+    public String text;
+
+    private byte[] bytes;
+    private File file;
+    private final char[] chars = new char[8 * 1024];
+
+    @Setup
+    public void setup() throws IOException {
+        String unit;
+        switch (text) {
+            case "ascii":
+                unit = "<!ELEMENT para (#PCDATA|emphasis|link)*>\n<!-- plain paragraph -->\n";
+                break;
+            case "latin":
+                unit = "<!ELEMENT para (#PCDATA|emphasis|link)*>\n<!-- Absatz f\u00fcr \u00e9l\u00e8ves -->\n";
+                break;
+            case "cjk":
+                unit = "<!ENTITY \u6bb5\u843d \"\u6587\u66f8\u578b\u5b9a\u7fa9\u306e\u8981\u7d20\u3067\u3059\">\n";
+                break;
+            default:
+                throw new IllegalArgumentException(text);
+        }
+        StringBuilder sb = new StringBuilder(256 * 1024);
+        while (sb.length() < 256 * 1024) {
+            sb.append(unit);
+        }
+        bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        file = File.createTempFile("decoder", ".dtd");
+        Files.write(file.toPath(), bytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int utf8Read() throws IOException {
+        return count(new XmlReader.Utf8Reader(new ByteArrayInputStream(bytes)));
+    }
+
+    @Benchmark
+    public int fileRead() throws IOException {
+        return count(XmlReader.createReader(file));
+    }
+
+    @Benchmark
+    public int fileStreamRead() throws IOException {
+        return count(XmlReader.createReader(new FileInputStream(file)));
+    }
+
+    private int count(Reader reader) throws IOException {
+        int count = 0;
+        try (Reader r = reader) {
+            for (int len; (len = r.read(chars, 0, chars.length)) >= 0; ) {
+                count += len;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Micro benchmarks of {@code NameCache.lookup()} over all distinct
+ * names of the {@code docbook} corpus: {@code hit} looks them up in a warm
+ * cache, {@code miss} populates a fresh one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class NameCacheBenchmark {
+
+    private char[][] names;
+    private DTDParser.NameCache warm;
+
+    @Setup
+    public void setup() throws IOException {
+        names = DTDCorpus.load("docbook").names();
+        warm = new DTDParser.NameCache();
+        for (char[] n : names) {
+            warm.lookup(n, n.length);
+        }
+    }
+
+    @Benchmark
+    public void hit(Blackhole bh) {
+        DTDParser.NameCache cache = warm;
+        for (char[] n : names) {
+            bh.consume(cache.lookup(n, n.length));
+        }
+    }
+
+    @Benchmark
+    public void miss(Blackhole bh) {
+        DTDParser.NameCache cache = new DTDParser.NameCache();
+        for (char[] n : names) {
+            bh.consume(cache.lookup(n, n.length));
+        }
+    }
+}
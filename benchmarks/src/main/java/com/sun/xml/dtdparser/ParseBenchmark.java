@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+
+/**
+ * End-to-end benchmarks of {@link DTDParser#parse(org.xml.sax.InputSource)}
+ * over the {@link DTDCorpus}, split in phases so a regression can be pinned
+ * down:
+ * <UL>
+ * <LI> {@code decode} ... encoding detection and decoding of the main
+ *      document only;</LI>
+ * <LI> {@code parse} ... full parse, events dropped by a do-nothing
+ *      handler;</LI>
+ * <LI> {@code parseAndConsume} ... full parse, every event argument
+ *      handed to a {@link Blackhole}, as a real consumer would;</LI>
+ * <LI> {@code parseReused} ... as {@code parse}, but with one parser
+ *      instance kept across invocations;</LI>
+ * <LI> {@code parseCached} ... as {@code parse}, replayed from a
+ *      {@link DTDCache};</LI>
+ * <LI> {@code parseFed} ... as {@code parse}, but with the main document
+ *      pushed to the parser in 8K chunks of bytes;</LI>
+ * <LI> {@code parsePrefetched} ... as {@code parse}, with external
+ *      parameter entities read ahead on a pool of four threads;</LI>
+ * <LI> {@code loadBinary} ... the events of a full parse, read back
+ *      from the stream written by a {@link DTDEventWriter}.</LI>
+ * </UL>
+ *
+ * <P> Run with {@code -prof gc} to get allocation rates; a DTD on disk can
+ * be measured with {@code -p corpus=file:/path/to/some.dtd}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    @Param({"docbook", "xhtml", "tei", "pe-heavy"})
+    public String corpus;
+
+    private DTDCorpus dtd;
+    private EntityResolver resolver;
+    private DTDParser reused;
+    private DTDCache cache;
+    private byte[] binary;
+    private ExecutorService prefetch;
+    private final char[] chars = new char[8 * 1024];
+
+    @Setup
+    public void setup() throws IOException, SAXException {
+        dtd = DTDCorpus.load(corpus);
+        resolver = dtd.resolver();
+        reused = new DTDParser();
+        cache = new DTDCache();
+        prefetch = Executors.newFixedThreadPool(4);
+        // fail fast on a broken corpus rather than measuring exceptions
+        parse();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DTDEventWriter writer = new DTDEventWriter(out)) {
+            DTDParser parser = new DTDParser();
+            parser.setEntityResolver(resolver);
+            parser.setDtdHandler(writer);
+            parser.parse(dtd.open());
+        }
+        binary = out.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        prefetch.shutdown();
+    }
+
+    @Benchmark
+    public int decode() throws IOException {
+        int count = 0;
+        try (Reader r = XmlReader.createReader(new ByteArrayInputStream(dtd.bytes()))) {
+            for (int len; (len = r.read(chars, 0, chars.length)) >= 0; ) {
+                count += len;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void parse() throws IOException, SAXException {
+        DTDParser parser = new DTDParser();
+        parser.setEntityResolver(resolver);
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.parse(dtd.open());
+    }
+
+    @Benchmark
+    public void parseReused() throws IOException, SAXException {
+        DTDParser parser = reused;
+        parser.setEntityResolver(resolver);
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.parse(dtd.open());
+    }
+
+    @Benchmark
+    public void parseCached() throws IOException, SAXException {
+        DTDParser parser = new DTDParser();
+        parser.setEntityResolver(resolver);
+        parser.setCache(cache);
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.parse(dtd.open());
+    }
+
+    @Benchmark
+    public void parseFed() throws IOException, SAXException {
+        DTDParser parser = new DTDParser();
+        parser.setEntityResolver(resolver);
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.startFeed(new InputSource(dtd.open().getSystemId()));
+        byte[] bytes = dtd.bytes();
+        for (int i = 0; i < bytes.length; i += 8 * 1024) {
+            parser.feed(ByteBuffer.wrap(bytes, i, Math.min(8 * 1024, bytes.length - i)));
+        }
+        parser.endOfInput();
+    }
+
+    @Benchmark
+    public void parsePrefetched() throws IOException, SAXException {
+        DTDParser parser = new DTDParser();
+        parser.setEntityResolver(resolver);
+        parser.setPrefetchExecutor(prefetch);
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.parse(dtd.open());
+    }
+
+    @Benchmark
+    public void loadBinary() throws IOException, SAXException {
+        DTDEventReader.read(new ByteArrayInputStream(binary), new DTDHandlerBase());
+    }
+
+    @Benchmark
+    public void parseAndConsume(Blackhole bh) throws IOException, SAXException {
+        DTDParser parser = new DTDParser();
+        parser.setEntityResolver(resolver);
+        parser.setDtdHandler(new Sink(bh));
+        parser.parse(dtd.open());
+    }
+
+    //
+    // Listener which makes every reported value "used".
+    //
+    static final class Sink extends DTDHandlerBase {
+        private final Blackhole bh;
+
+        Sink(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator loc) {
+            bh.consume(loc);
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) {
+            bh.consume(target);
+            bh.consume(data);
+        }
+
+        @Override
+        public void notationDecl(String name, String publicId, String systemId) {
+            bh.consume(name);
+            bh.consume(publicId);
+            bh.consume(systemId);
+        }
+
+        @Override
+        public void unparsedEntityDecl(String name, String publicId, String systemId, String notationName) {
+            bh.consume(name);
+            bh.consume(publicId);
+            bh.consume(systemId);
+            bh.consume(notationName);
+        }
+
+        @Override
+        public void externalGeneralEntityDecl(String n, String p, String s) {
+            bh.consume(n);
+            bh.consume(p);
+            bh.consume(s);
+        }
+
+        @Override
+        public void internalGeneralEntityDecl(String n, String v) {
+            bh.consume(n);
+            bh.consume(v);
+        }
+
+        @Override
+        public void externalParameterEntityDecl(String n, String p, String s) {
+            bh.consume(n);
+            bh.consume(p);
+            bh.consume(s);
+        }
+
+        @Override
+        public void internalParameterEntityDecl(String n, String v) {
+            bh.consume(n);
+            bh.consume(v);
+        }
+
+        @Override
+        public void comment(String n) {
+            bh.consume(n);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            bh.consume(ch);
+            bh.consume(length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            bh.consume(ch);
+            bh.consume(length);
+        }
+
+        @Override
+        public void startContentModel(String elementName, short contentModelType) {
+            bh.consume(elementName);
+            bh.consume(contentModelType);
+        }
+
+        @Override
+        public void endContentModel(String elementName, short contentModelType) {
+            bh.consume(elementName);
+        }
+
+        @Override
+        public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                  String[] enumeration, short attributeUse, String defaultValue) {
+            bh.consume(elementName);
+            bh.consume(attributeName);
+            bh.consume(attributeType);
+            bh.consume(enumeration);
+            bh.consume(attributeUse);
+            bh.consume(defaultValue);
+        }
+
+        @Override
+        public void childElement(String elementName, short occurrence) {
+            bh.consume(elementName);
+            bh.consume(occurrence);
+        }
+
+        @Override
+        public void mixedElement(String elementName) {
+            bh.consume(elementName);
+        }
+
+        @Override
+        public void endModelGroup(short occurrence) {
+            bh.consume(occurrence);
+        }
+
+        @Override
+        public void connector(short connectorType) {
+            bh.consume(connectorType);
+        }
+    }
+}
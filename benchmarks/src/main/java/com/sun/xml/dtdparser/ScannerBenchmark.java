@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Micro benchmarks of the scanner hot paths: {@link InputEntity#getc()}
+ * and name scanning as done by {@code DTDParser.nameCharString()}.
+ *
+ * <P> The text scanned is the decoded {@code docbook} corpus; scores are
+ * per pass over the whole text.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class ScannerBenchmark {
+
+    /**
+     * {@code internal} scans a fixed buffer as for entity expansions,
+     * {@code external} refills from a reader as for external entities.
+     */
+    @Param({"internal", "external"})
+    public String entity;
+
+    private char[] text;
+
+    @Setup
+    public void setup() throws IOException {
+        text = DTDCorpus.load("docbook").chars();
+    }
+
+    private InputEntity open() throws IOException, SAXException {
+        InputEntity in = InputEntity.getInputEntity(null, null);
+        if ("internal".equals(entity)) {
+            in.init(text, null, null, false);
+        } else {
+            InputSource src = new InputSource(new CharArrayReader(text));
+            src.setSystemId("corpus:/scanner");
+            in.init(src, null, null, false);
+        }
+        return in;
+    }
+
+    @Benchmark
+    public int getc() throws IOException, SAXException {
+        InputEntity in = open();
+        int sum = 0;
+        while (!in.isEOF()) {
+            sum += in.getc();
+        }
+        return sum;
+    }
+
+    /**
+     * Splits the text into names the way {@code nameCharString()} does,
+     * scanning each in place and symbolizing it through the name cache.
+     */
+    @Benchmark
+    public void names(Blackhole bh) throws IOException, SAXException {
+        InputEntity in = open();
+        DTDParser.NameCache cache = new DTDParser.NameCache();
+        while (!in.isEOF()) {
+            char c = in.getc();
+            if (XmlChars.isNameChar(c)) {
+                bh.consume(in.getName(c, cache));
+            }
+        }
+    }
+}
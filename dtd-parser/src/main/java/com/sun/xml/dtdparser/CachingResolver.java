@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An entity resolver keeping the content of the entities it resolves,
+ * so that DTD modules used by parse after parse are only read once.
+ * <p>
+ * Entities are resolved by another resolver (a default {@link Resolver},
+ * unless given one) and read in full; later requests for the same public
+ * and system ID are answered from memory.  Entries are evicted in least
+ * recently used order once there are more than {@code maxEntries} of them,
+ * or once they hold more than {@code maxSize} bytes in total (counting
+ * two bytes per character for entities resolved to character streams).
+ * <p>
+ * Entities may also be kept in a directory, which outlives the resolver
+ * and can be shared by several of them, in one process or more: each
+ * entity is written to a file of its own, atomically where the file
+ * system allows it.  The content of a file is checked against its SHA-256
+ * digest when read back; a damaged file is dropped and the entity read
+ * again.
+ * <p>
+ * An entity read from a local file is checked on every use, and read
+ * again if the size or the modification time of the file changed.  Other
+ * entities (from the network, or Java resources) are assumed not to
+ * change: {@link #clear()} drops those kept in memory, and deleting the
+ * files of the directory those kept there.
+ * <p>
+ * The resolver counts hits (the entity was in memory), disk hits (it was
+ * read back from the directory) and misses (it had to be resolved).
+ * <p>
+ * This class is thread-safe, if the resolver it wraps is; entities are
+ * read without holding any lock, so a parser waiting for one doesn't hold
+ * up those finding theirs in memory.
+ */
+public final class CachingResolver implements EntityResolver {
+
+    private static final Logger LOGGER = Logger.getLogger(CachingResolver.class.getName());
+
+    // file format: magic, version, then the entry (see store())
+    private static final int MAGIC = 0x44544445;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".ent";
+
+    private final EntityResolver resolver;
+    private final int maxEntries;
+    private final long maxSize;
+    private final File directory;
+
+    // guarded by "this"
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long hits;
+    private long diskHits;
+    private long misses;
+
+    /**
+     * Constructs a resolver wrapping a default {@link Resolver}, and
+     * keeping at most 256 entities and 16M bytes in memory.
+     */
+    public CachingResolver() {
+        this(new Resolver());
+    }
+
+    /**
+     * Constructs a resolver keeping at most 256 entities and 16M bytes
+     * in memory.
+     *
+     * @param resolver the resolver of the entities not kept
+     */
+    public CachingResolver(EntityResolver resolver) {
+        this(resolver, 256, 16L * 1024 * 1024, null);
+    }
+
+    /**
+     * Constructs a resolver.
+     *
+     * @param resolver   the resolver of the entities not kept
+     * @param maxEntries the maximum number of entities kept in memory
+     * @param maxSize    the maximum number of bytes kept in memory
+     * @param directory  the directory where entities are kept too, created
+     *                   if need be; or null to keep them in memory only
+     * @throws IllegalArgumentException if a limit is not positive
+     * @throws NullPointerException if {@code resolver} is null
+     */
+    public CachingResolver(EntityResolver resolver, int maxEntries, long maxSize, File directory) {
+        if (resolver == null) {
+            throw new NullPointerException("resolver");
+        }
+        if (maxEntries <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("maxEntries: " + maxEntries + ", maxSize: " + maxSize);
+        }
+        this.resolver = resolver;
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the number of entities kept in memory.
+     * @return the number of entities in memory
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total size of the entities kept in memory, in bytes.
+     * @return the cache weight
+     */
+    public synchronized long getWeight() {
+        return size;
+    }
+
+    /**
+     * Returns the number of entities found in memory.
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of entities read back from the directory.
+     * @return the disk hit count
+     */
+    public synchronized long getDiskHitCount() {
+        return diskHits;
+    }
+
+    /**
+     * Returns the number of entities which had to be resolved.
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the ratio of hits, in memory or on disk, to lookups,
+     * or 0 before the first lookup.
+     * @return the hit ratio
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + diskHits + misses;
+        return lookups == 0 ? 0 : (double) (hits + diskHits) / lookups;
+    }
+
+    /**
+     * Discards the entities kept in memory; the statistics are kept,
+     * and so is the content of the directory.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CachingResolver[entries=" + entries.size() + "/" + maxEntries
+                + ", size=" + size + "/" + maxSize
+                + ", hits=" + hits
+                + ", diskHits=" + diskHits
+                + ", misses=" + misses
+                + (directory != null ? ", directory=" + directory : "") + "]";
+    }
+
+    /**
+     * <b>SAX:</b>
+     * Returns the content of the entity, kept from an earlier request or
+     * else resolved by the wrapped resolver.  When that one returns null,
+     * the system ID is read as a URL, as the parser would do.
+     *
+     * @param publicId the public ID of the entity, or null
+     * @param systemId the system ID of the entity
+     * @return a source over the content of the entity
+     * @throws IOException when the entity can't be read
+     * @throws SAXException when the wrapped resolver throws it
+     */
+    @Override
+    public InputSource resolveEntity(String publicId, String systemId)
+            throws IOException, SAXException {
+
+        if (systemId == null && publicId == null) {
+            return resolver.resolveEntity(null, null);
+        }
+        String key = publicId == null ? systemId : publicId + '\n' + systemId;
+
+        Entry entry = get(key);
+        if (entry != null) {
+            if (entry.isCurrent()) {
+                count(entry, false);
+                return entry.toInputSource();
+            }
+            remove(key, entry);
+        }
+        if (directory != null) {
+            entry = load(key);
+            if (entry != null && entry.isCurrent()) {
+                count(entry, true);
+                put(key, entry);
+                return entry.toInputSource();
+            }
+        }
+        count(null, false);
+
+        // as in ExternalEntity.getInputSource()
+        InputSource in = resolver.resolveEntity(publicId, systemId);
+        if (in == null) {
+            if (systemId == null) {
+                return null;
+            }
+            in = Resolver.createInputSource(new URL(systemId), false);
+        }
+
+        // note how the file looked before reading it, so that
+        // a change while it's read is noticed next time
+        File file = toFile(in.getSystemId());
+        long length = file != null ? file.length() : 0;
+        long modified = file != null ? file.lastModified() : 0;
+
+        DTDCache.Content content = DTDCache.Content.read(in);
+        if (content == null) {
+            // only a system ID; leave it to the parser
+            return in;
+        }
+        entry = new Entry(in.getPublicId(), in.getSystemId(), in.getEncoding(),
+                content, file, length, modified);
+        put(key, entry);
+        if (directory != null) {
+            store(key, entry);
+        }
+        return entry.toInputSource();
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void count(Entry entry, boolean disk) {
+        if (entry == null) {
+            misses++;
+        } else if (disk) {
+            diskHits++;
+        } else {
+            hits++;
+        }
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            size -= entry.size();
+        }
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.size() > maxSize) {
+            return;
+        }
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            size -= old.size();
+        }
+        size += entry.size();
+        for (Iterator<Entry> i = entries.values().iterator();
+                i.hasNext() && (entries.size() > maxEntries || size > maxSize);) {
+            size -= i.next().size();
+            i.remove();
+        }
+    }
+
+    // the local file named by a system ID, if it is a "file:" URL
+    private static File toFile(String systemId) {
+        if (systemId == null) {
+            return null;
+        }
+        try {
+            return XmlReader.toFile(new URL(systemId));
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    //
+    // The directory holds one file per entity, named after a digest of
+    // its key, and written to a temporary file first.
+    //
+    private Path path(String key) {
+        byte[] digest = DTDCache.Content.newDigest().digest(key.getBytes(StandardCharsets.UTF_8));
+        StringBuilder name = new StringBuilder(2 * digest.length + SUFFIX.length());
+        for (byte b : digest) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16))
+                    .append(Character.forDigit(b & 0xf, 16));
+        }
+        return directory.toPath().resolve(name.append(SUFFIX).toString());
+    }
+
+    private void store(String key, Entry entry) {
+        Path path = path(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), "entity", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(key);
+                    writeString(out, entry.publicId);
+                    writeString(out, entry.systemId);
+                    writeString(out, entry.encoding);
+                    writeString(out, entry.file != null ? entry.file.getPath() : null);
+                    out.writeLong(entry.length);
+                    out.writeLong(entry.modified);
+                    DTDCache.Content content = entry.content;
+                    out.writeInt(content.digest.length);
+                    out.write(content.digest);
+                    if (content.bytes != null) {
+                        out.writeBoolean(false);
+                        out.writeInt(content.bytes.length);
+                        out.write(content.bytes);
+                    } else {
+                        out.writeBoolean(true);
+                        out.writeInt(content.chars.length);
+                        for (char c : content.chars) {
+                            out.writeChar(c);
+                        }
+                    }
+                }
+                try {
+                    Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            // it's only a cache
+            LOGGER.log(Level.FINE, "Could not store " + key + " in " + directory, e);
+        }
+    }
+
+    // returns null if the entity isn't there, or the file is damaged
+    private Entry load(String key) {
+        Path path = path(key);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                // another version, or a digest collision; overwritten once resolved
+                return null;
+            }
+            String publicId = readString(in);
+            String systemId = readString(in);
+            String encoding = readString(in);
+            String file = readString(in);
+            long length = in.readLong();
+            long modified = in.readLong();
+            byte[] digest = new byte[in.readInt()];
+            in.readFully(digest);
+            boolean isChars = in.readBoolean();
+            int count = in.readInt();
+            if (count < 0 || count > Files.size(path)) {
+                throw new IOException("bad length: " + count);
+            }
+
+            DTDCache.Content content;
+            if (isChars) {
+                char[] chars = new char[count];
+                for (int i = 0; i < count; i++) {
+                    chars[i] = in.readChar();
+                }
+                content = new DTDCache.Content(null, chars);
+            } else {
+                byte[] bytes = new byte[count];
+                in.readFully(bytes);
+                content = new DTDCache.Content(bytes, null);
+            }
+            if (!Arrays.equals(digest, content.digest)) {
+                throw new IOException("digest mismatch");
+            }
+            return new Entry(publicId, systemId, encoding, content,
+                    file != null ? new File(file) : null, length, modified);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Dropping damaged cache file " + path, e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // the next store replaces it
+            }
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    //
+    // The content of an entity, and the IDs and encoding it was resolved to
+    //
+    private static final class Entry {
+        final String publicId;
+        final String systemId;
+        final String encoding;
+        final DTDCache.Content content;
+        // the local file read, and how it looked then
+        final File file;
+        final long length;
+        final long modified;
+
+        Entry(String publicId, String systemId, String encoding,
+              DTDCache.Content content, File file, long length, long modified) {
+            this.publicId = publicId;
+            this.systemId = systemId;
+            this.encoding = encoding;
+            this.content = content;
+            this.file = file;
+            this.length = length;
+            this.modified = modified;
+        }
+
+        long size() {
+            return content.bytes != null ? content.bytes.length : 2L * content.chars.length;
+        }
+
+        boolean isCurrent() {
+            return file == null
+                    || (file.length() == length && file.lastModified() == modified);
+        }
+
+        InputSource toInputSource() {
+            InputSource ids = new InputSource(systemId);
+            ids.setPublicId(publicId);
+            ids.setEncoding(encoding);
+            return content.toInputSource(ids);
+        }
+    }
+}
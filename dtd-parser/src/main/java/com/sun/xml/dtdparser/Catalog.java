@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An immutable index of catalog entries, mapping the public and system
+ * IDs of entities to the URIs of local copies (see
+ * {@link Resolver#setCatalog(Catalog)}).
+ * <p>
+ * A catalog is loaded from an
+ * <a href="https://www.oasis-open.org/committees/entity/spec.html">OASIS
+ * XML catalog</a>, with {@link #parse(InputSource)}, or from the compiled
+ * form written by {@link #write(OutputStream)}, with {@link #read(InputStream)};
+ * the latter is a flat list of each catalog file's entries, quick to load
+ * even when there are thousands of them.
+ * <p>
+ * The {@code public}, {@code system} and {@code rewriteSystem} entries
+ * are supported, in {@code group}s or not, along with {@code xml:base},
+ * {@code prefer} and {@code nextCatalog}.  Entries are looked up as the
+ * OASIS specification says, one catalog file at a time, each before its
+ * next catalogs: an exact system ID match first, then the longest
+ * matching {@code rewriteSystem} prefix, then the public ID, unless
+ * {@code prefer="system"} applies to the entry and a system ID was
+ * given.  Only when none of a catalog's entries match are those of the
+ * next catalog looked at; within a catalog, when an entry appears more
+ * than once, the first one wins.
+ * <p>
+ * Lookups need no locking: a catalog never changes once loaded, and may
+ * be shared by any number of threads.
+ */
+public final class Catalog {
+
+    private static final Logger LOGGER = Logger.getLogger(Catalog.class.getName());
+
+    private static final String NAMESPACE = "urn:oasis:names:tc:entity:xmlns:xml:catalog";
+
+    // compiled form: magic, version, then the tables (see write())
+    private static final int MAGIC = 0x44544443;
+    private static final int VERSION = 2;
+
+    // the entries of each catalog file, in the order they're looked up
+    private final Entries[] catalogs;
+
+    private Catalog(List<Entries> catalogs) {
+        this.catalogs = catalogs.toArray(new Entries[catalogs.size()]);
+    }
+
+    /**
+     * Loads an OASIS XML catalog, and the next catalogs it names.
+     * Relative URIs are resolved against the system ID of the source,
+     * or the {@code xml:base} in effect.  The catalog DTD, if any, is
+     * not read; next catalogs which can't be read are skipped.
+     *
+     * @param in the catalog
+     * @return the catalog loaded
+     * @throws IOException when the catalog can't be read
+     * @throws SAXException when the catalog isn't well-formed
+     */
+    public static Catalog parse(InputSource in) throws IOException, SAXException {
+        Loader loader = new Loader();
+        loader.load(in, true);
+        return new Catalog(loader.catalogs);
+    }
+
+    /**
+     * Loads an OASIS XML catalog from a file.
+     *
+     * @param file the catalog
+     * @return the catalog loaded
+     * @throws IOException when the catalog can't be read
+     * @throws SAXException when the catalog isn't well-formed
+     * @see #parse(InputSource)
+     */
+    public static Catalog parse(File file) throws IOException, SAXException {
+        return parse(new InputSource(file.toURI().toString()));
+    }
+
+    /**
+     * Loads a catalog written by {@link #write(OutputStream)}.
+     *
+     * @param in the compiled catalog, read to its end but not closed
+     * @return the catalog loaded
+     * @throws IOException when the catalog can't be read, or isn't one
+     */
+    public static Catalog read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("not a compiled catalog");
+        }
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("bad catalog count: " + count);
+        }
+        List<Entries> catalogs = new ArrayList<>(Math.min(count, 64));
+        for (int i = 0; i < count; i++) {
+            Map<String, String> publicIds = readTable(data);
+            Map<String, String> systemPublicIds = readTable(data);
+            Map<String, String> systemIds = readTable(data);
+            Map<String, String> rewrites = readTable(data);
+            catalogs.add(new Entries(publicIds, systemPublicIds, systemIds, rewrites));
+        }
+        return new Catalog(catalogs);
+    }
+
+    /**
+     * Writes this catalog in the compiled form read by {@link #read(InputStream)}.
+     *
+     * @param out where to write the catalog; flushed, but not closed
+     * @throws IOException when it can't be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(catalogs.length);
+        for (Entries entries : catalogs) {
+            writeTable(data, entries.publicIds);
+            writeTable(data, entries.systemPublicIds);
+            writeTable(data, entries.systemIds);
+            writeTable(data, entries.rewrites);
+        }
+        data.flush();
+    }
+
+    private static Map<String, String> readTable(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("bad table size: " + count);
+        }
+        Map<String, String> table = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+        for (int i = 0; i < count; i++) {
+            table.put(in.readUTF(), in.readUTF());
+        }
+        return table;
+    }
+
+    private static void writeTable(DataOutputStream out, Map<String, String> table) throws IOException {
+        out.writeInt(table.size());
+        for (Map.Entry<String, String> e : table.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeUTF(e.getValue());
+        }
+    }
+
+    /**
+     * Returns the number of entries in this catalog.
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Entries entries : catalogs) {
+            size += entries.publicIds.size() + entries.systemPublicIds.size()
+                    + entries.systemIds.size() + entries.rewrites.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the URI of the local copy of an entity.
+     *
+     * @param publicId the public ID of the entity, or null
+     * @param systemId the system ID of the entity, or null
+     * @return the URI mapped to either ID, or null if there is none
+     */
+    public String resolve(String publicId, String systemId) {
+        for (Entries entries : catalogs) {
+            String uri = entries.resolve(publicId, systemId);
+            if (uri != null) {
+                return uri;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the URI mapped to a system ID, by a {@code system} or a
+     * {@code rewriteSystem} entry.
+     *
+     * @param systemId the system ID of an entity
+     * @return the URI mapped to it, or null if there is none
+     */
+    public String resolveSystem(String systemId) {
+        for (Entries entries : catalogs) {
+            String uri = entries.resolveSystem(systemId);
+            if (uri != null) {
+                return uri;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        int publics = 0;
+        int systems = 0;
+        int rewriteSystems = 0;
+        for (Entries entries : catalogs) {
+            publics += entries.publicIds.size() + entries.systemPublicIds.size();
+            systems += entries.systemIds.size();
+            rewriteSystems += entries.rewrites.size();
+        }
+        return "Catalog[files=" + catalogs.length
+                + ", public=" + publics
+                + ", system=" + systems
+                + ", rewriteSystem=" + rewriteSystems + "]";
+    }
+
+    //
+    // The entries of one catalog file.
+    //
+    private static final class Entries {
+        // public ID -> URI, for entries with prefer="public"; and "system"
+        final Map<String, String> publicIds;
+        final Map<String, String> systemPublicIds;
+        final Map<String, String> systemIds;
+        // system ID prefix -> rewritten prefix, looked up by length, longest first
+        final Map<String, String> rewrites;
+        private final int[] prefixLengths;  // ascending
+
+        Entries(Map<String, String> publicIds, Map<String, String> systemPublicIds,
+                Map<String, String> systemIds, Map<String, String> rewrites) {
+            this.publicIds = publicIds;
+            this.systemPublicIds = systemPublicIds;
+            this.systemIds = systemIds;
+            this.rewrites = rewrites;
+
+            this.prefixLengths = rewrites.keySet().stream()
+                    .mapToInt(String::length).distinct().sorted().toArray();
+        }
+
+        String resolve(String publicId, String systemId) {
+            if (systemId != null) {
+                String uri = resolveSystem(systemId);
+                if (uri != null) {
+                    return uri;
+                }
+            }
+            if (publicId != null) {
+                String uri = publicIds.get(publicId);
+                if (uri == null && systemId == null) {
+                    uri = systemPublicIds.get(publicId);
+                }
+                return uri;
+            }
+            return null;
+        }
+
+        String resolveSystem(String systemId) {
+            String uri = systemIds.get(systemId);
+            if (uri != null) {
+                return uri;
+            }
+            for (int i = prefixLengths.length - 1; i >= 0; i--) {
+                int length = prefixLengths[i];
+                if (length <= systemId.length()) {
+                    String prefix = rewrites.get(systemId.substring(0, length));
+                    if (prefix != null) {
+                        return prefix + systemId.substring(length);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    //
+    // Reads XML catalogs into tables, one set per catalog file, first
+    // entry first.
+    //
+    private static final class Loader extends DefaultHandler {
+        final List<Entries> catalogs = new ArrayList<>();
+
+        // the tables of the catalog being read
+        private Map<String, String> publicIds;
+        private Map<String, String> systemPublicIds;
+        private Map<String, String> systemIds;
+        private Map<String, String> rewrites;
+
+        private final Set<String> loaded = new HashSet<>();
+        private final Deque<String> next = new ArrayDeque<>();
+
+        // base URI and prefer="public", per open element
+        private final Deque<String> bases = new ArrayDeque<>();
+        private final Deque<Boolean> prefers = new ArrayDeque<>();
+
+        void load(InputSource in, boolean first) throws IOException, SAXException {
+            if (in.getSystemId() != null) {
+                loaded.add(in.getSystemId());
+            }
+            publicIds = new HashMap<>();
+            systemPublicIds = new HashMap<>();
+            systemIds = new HashMap<>();
+            rewrites = new HashMap<>();
+            try {
+                read(in);
+            } catch (IOException | SAXException e) {
+                if (first) {
+                    throw e;
+                }
+                // OASIS: "resources which cannot be loaded are ignored"
+                LOGGER.log(Level.FINE, "Skipping catalog " + in.getSystemId(), e);
+            }
+            if (!publicIds.isEmpty() || !systemPublicIds.isEmpty()
+                    || !systemIds.isEmpty() || !rewrites.isEmpty()) {
+                catalogs.add(new Entries(publicIds, systemPublicIds, systemIds, rewrites));
+            }
+            // breadth first, as each catalog is done before the next
+            while (first && !next.isEmpty()) {
+                String uri = next.removeFirst();
+                if (loaded.add(uri)) {
+                    load(new InputSource(uri), false);
+                }
+            }
+        }
+
+        private void read(InputSource in) throws IOException, SAXException {
+            XMLReader reader;
+            try {
+                SAXParserFactory factory = SAXParserFactory.newInstance();
+                factory.setNamespaceAware(true);
+                factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                reader = factory.newSAXParser().getXMLReader();
+            } catch (ParserConfigurationException e) {
+                throw new SAXException(e);
+            }
+            // never fetch the catalog DTD
+            reader.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+            reader.setContentHandler(this);
+            bases.clear();
+            prefers.clear();
+            bases.push(in.getSystemId() != null ? in.getSystemId() : "");
+            prefers.push(Boolean.TRUE);
+            reader.parse(in);
+        }
+
+        @Override
+        public void startElement(String ns, String localName, String qName, Attributes atts)
+                throws SAXException {
+
+            String base = bases.peek();
+            String xmlBase = atts.getValue(XMLConstants.XML_NS_URI, "base");
+            if (xmlBase != null) {
+                base = resolve(base, xmlBase);
+            }
+            boolean preferPublic = prefers.peek();
+            String prefer = atts.getValue("prefer");
+            if (prefer != null) {
+                preferPublic = !"system".equals(prefer.trim());
+            }
+            bases.push(base);
+            prefers.push(preferPublic);
+
+            if (!NAMESPACE.equals(ns)) {
+                return;
+            }
+            switch (localName) {
+                case "public":
+                    String publicId = atts.getValue("publicId");
+                    String uri = atts.getValue("uri");
+                    if (publicId != null && uri != null) {
+                        // as the parser normalizes them
+                        publicId = publicId.trim().replaceAll("[ \t\r\n]+", " ");
+                        if (!publicIds.containsKey(publicId) && !systemPublicIds.containsKey(publicId)) {
+                            (preferPublic ? publicIds : systemPublicIds).put(publicId, resolve(base, uri));
+                        }
+                    }
+                    break;
+                case "system":
+                    add(systemIds, atts.getValue("systemId"), atts.getValue("uri"), base);
+                    break;
+                case "rewriteSystem":
+                    add(rewrites, atts.getValue("systemIdStartString"), atts.getValue("rewritePrefix"), base);
+                    break;
+                case "nextCatalog":
+                    String catalog = atts.getValue("catalog");
+                    if (catalog != null) {
+                        next.addLast(resolve(base, catalog));
+                    }
+                    break;
+                default:
+                    // catalog, group, and the entries not supported
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String ns, String localName, String qName) {
+            bases.pop();
+            prefers.pop();
+        }
+
+        private static void add(Map<String, String> table, String key, String uri, String base)
+                throws SAXException {
+            if (key != null && uri != null) {
+                table.putIfAbsent(key, resolve(base, uri));
+            }
+        }
+
+        private static String resolve(String base, String uri) throws SAXException {
+            try {
+                return base.isEmpty() ? uri : new URI(base).resolve(new URI(uri)).toString();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new SAXException("bad URI: " + uri + " (base " + base + ")", e);
+            }
+        }
+    }
+}
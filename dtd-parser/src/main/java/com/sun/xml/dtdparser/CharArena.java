@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The characters a parser holds on to during a parse, handed out from a
+ * few large arrays rather than many small ones: the replacement text of
+ * internal entities, as slices of slabs filled one after the other, and
+ * the buffers external entities are read into, taken back once the
+ * entities are done with.  It's owned by one parser, and everything it
+ * handed out is free again when {@link #clear()} is called at the end of
+ * a parse; what's worth keeping is reused by the next one.
+ */
+final class CharArena {
+    // the size of a slab, and of the longest text put in one; longer
+    // texts get an array of their own rather than waste a slab's end
+    static final int SLAB = 8 * 1024;
+    static final int MAX_SLICE = SLAB / 4;
+    // bounds on what's kept between parses, in characters, and on the
+    // number of free buffers
+    static final int KEEP = 256 * 1024;
+    static final int MAX_FREE = 8;
+
+    // the slabs, the first current + 1 of them in use
+    private final List<char[]> slabs = new ArrayList<>();
+    private int current = -1;
+    private int used;
+    // the array the last text went to
+    private char[] last;
+
+    // buffers free for external entities, in no particular order
+    private final List<char[]> free = new ArrayList<>();
+
+    // copies text into the arena, returning its offset in array()
+    int add(TextBuffer text) {
+        int length = text.length();
+        int offset = reserve(length);
+        System.arraycopy(text.array(), 0, last, offset, length);
+        return offset;
+    }
+
+    // the array the text last added is in
+    char[] array() {
+        return last;
+    }
+
+    private int reserve(int length) {
+        if (length > MAX_SLICE) {
+            last = new char[length];
+            return 0;
+        }
+        if (current < 0 || used + length > SLAB) {
+            current++;
+            if (current == slabs.size()) {
+                slabs.add(new char[SLAB]);
+            }
+            used = 0;
+        }
+        last = slabs.get(current);
+        int offset = used;
+        used += length;
+        return offset;
+    }
+
+    // returns a free buffer of at least the given length, the shortest
+    // there is, or null if there's none
+    char[] buffer(int length) {
+        int best = -1;
+        for (int i = 0; i < free.size(); i++) {
+            int n = free.get(i).length;
+            if (n >= length && (best < 0 || n < free.get(best).length)) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        // order doesn't matter: the last one fills the gap
+        char[] b = free.get(best);
+        free.set(best, free.get(free.size() - 1));
+        free.remove(free.size() - 1);
+        return b;
+    }
+
+    // takes back a buffer no longer read from, for buffer(int) to hand out
+    // again; when there are enough, the shortest is dropped
+    void release(char[] buffer) {
+        if (free.size() < MAX_FREE) {
+            free.add(buffer);
+            return;
+        }
+        int shortest = 0;
+        for (int i = 1; i < free.size(); i++) {
+            if (free.get(i).length < free.get(shortest).length) {
+                shortest = i;
+            }
+        }
+        if (free.get(shortest).length < buffer.length) {
+            free.set(shortest, buffer);
+        }
+    }
+
+    // frees everything handed out, keeping up to KEEP characters of slabs
+    // and buffers for the next parse
+    void clear() {
+        current = -1;
+        used = 0;
+        last = null;
+
+        int kept = 0;
+        for (int i = 0; i < slabs.size(); i++) {
+            if (kept + SLAB > KEEP) {
+                slabs.subList(i, slabs.size()).clear();
+                break;
+            }
+            kept += SLAB;
+        }
+        for (int i = 0; i < free.size(); ) {
+            char[] b = free.get(i);
+            if (kept + b.length > KEEP) {
+                free.set(i, free.get(free.size() - 1));
+                free.remove(free.size() - 1);
+            } else {
+                kept += b.length;
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A deterministic finite automaton accepting the sequences of child
+ * elements a {@link ContentModel} allows; character data, which mixed
+ * content allows anywhere, is left to the caller.  It's got from
+ * {@link ContentModel#getAutomaton()}.
+ * <p>
+ * The elements named in the model are numbered as symbols, from 0, and
+ * states as well, 0 being the start state; the transitions are a table
+ * indexed by both.  A validator looks up the symbol of each child, e.g.
+ * once per name in a symbol table of its own, then steps through the
+ * states:
+ * <pre>
+ * int state = automaton.getStartState();
+ * for (String child : children) {
+ *     state = automaton.step(state, automaton.getSymbol(child));
+ * }
+ * boolean valid = automaton.isFinal(state);
+ * </pre>
+ * The automaton is built from the Glushkov automaton of the model, with
+ * one state per element particle, which is deterministic when the model
+ * is (as XML requires for compatibility, see {@link #isDeterministic()});
+ * when it isn't, the states are made deterministic by subset construction.
+ * <p>
+ * Automata are immutable, and may be shared by any number of threads.
+ */
+public final class ContentAutomaton {
+
+    /**
+     * The state reached by a step the model doesn't allow; no step leaves it.
+     */
+    public static final int REJECT = -1;
+
+    // a subset construction gone past this many states is given up on
+    static final int MAX_STATES = 1 << 14;
+
+    private final String[] names;
+    private final Map<String, Integer> symbols;
+    // transitions[state * names.length + symbol], or REJECT
+    private final int[] transitions;
+    private final boolean[] finals;
+    private final boolean deterministic;
+
+    private ContentAutomaton(String[] names, int[] transitions, boolean[] finals, boolean deterministic) {
+        this.names = names;
+        Map<String, Integer> symbols = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            symbols.put(names[i], i);
+        }
+        this.symbols = Map.copyOf(symbols);
+        this.transitions = transitions;
+        this.finals = finals;
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Returns the symbol of an element.
+     *
+     * @param name the name of the element
+     * @return the symbol, or {@link #REJECT} if the model doesn't name the
+     * element, which any step rejects
+     */
+    public int getSymbol(String name) {
+        Integer symbol = symbols.get(name);
+        return symbol != null ? symbol : REJECT;
+    }
+
+    /**
+     * Returns the element a symbol stands for.
+     *
+     * @param symbol the symbol
+     * @return the name of the element
+     */
+    public String getName(int symbol) {
+        return names[symbol];
+    }
+
+    /**
+     * Returns the number of symbols, the distinct elements the model names.
+     *
+     * @return the number of symbols
+     */
+    public int getSymbolCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns the number of states.
+     *
+     * @return the number of states, at least one
+     */
+    public int getStateCount() {
+        return finals.length;
+    }
+
+    /**
+     * Returns the start state, before any child.
+     *
+     * @return the start state
+     */
+    public int getStartState() {
+        return 0;
+    }
+
+    /**
+     * Steps from a state on the next child.
+     *
+     * @param state  the current state, or {@link #REJECT}
+     * @param symbol the symbol of the child, or {@link #REJECT}
+     * @return the next state, or {@link #REJECT} if the model doesn't
+     * allow the child there
+     */
+    public int step(int state, int symbol) {
+        if (state < 0 || symbol < 0) {
+            return REJECT;
+        }
+        return transitions[state * names.length + symbol];
+    }
+
+    /**
+     * Returns whether the children stepped through so far may end there.
+     *
+     * @param state the current state, or {@link #REJECT}
+     * @return true if the sequence of children is complete
+     */
+    public boolean isFinal(int state) {
+        return state >= 0 && finals[state];
+    }
+
+    /**
+     * Returns whether the model allows a sequence of children.
+     *
+     * @param children the names of the child elements, in order
+     * @return true if the sequence is valid
+     */
+    public boolean accepts(String... children) {
+        int state = 0;
+        for (int i = 0; i < children.length && state >= 0; i++) {
+            state = step(state, getSymbol(children[i]));
+        }
+        return isFinal(state);
+    }
+
+    /**
+     * Returns whether the model allows a sequence of children, given as
+     * symbols.
+     *
+     * @param children the symbols of the child elements, in order
+     * @param offset   the index of the first child
+     * @param length   the number of children
+     * @return true if the sequence is valid
+     */
+    public boolean accepts(int[] children, int offset, int length) {
+        int width = names.length;
+        int state = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int symbol = children[i];
+            if (symbol < 0) {
+                return false;
+            }
+            state = transitions[state * width + symbol];
+            if (state < 0) {
+                return false;
+            }
+        }
+        return finals[state];
+    }
+
+    /**
+     * Returns whether the model is deterministic, as XML requires of
+     * content models "for compatibility": whether each child can only
+     * match one element particle, without looking ahead.  Either way, the
+     * automaton accepts what the model allows.
+     *
+     * @return true if the model is deterministic
+     */
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentAutomaton[symbols=" + names.length + ", states=" + finals.length
+                + (deterministic ? "" : ", nondeterministic") + "]";
+    }
+
+    /**
+     * Compiles a content model.
+     *
+     * @throws IllegalArgumentException if the model is so ambiguous that it
+     * would take an unreasonable number of states
+     */
+    static ContentAutomaton compile(ContentModel model) {
+        return new Glushkov(model).toAutomaton();
+    }
+
+    //
+    // Merges states which are final alike and step alike, until there are
+    // none left; e.g. the one state per element of mixed content, which
+    // all step alike, become one.  The start state stays state 0.
+    //
+    private static ContentAutomaton merge(String[] names, int[] transitions, boolean[] finals,
+                                          boolean deterministic) {
+        int width = names.length;
+        for (;;) {
+            int count = finals.length;
+            int[] merged = new int[count];
+            Map<Row, Integer> rows = new HashMap<>();
+            for (int state = 0; state < count; state++) {
+                Row row = new Row(transitions, state * width, width, finals[state]);
+                Integer known = rows.putIfAbsent(row, rows.size());
+                merged[state] = known != null ? known : rows.size() - 1;
+            }
+            if (rows.size() == count) {
+                return new ContentAutomaton(names, transitions, finals, deterministic);
+            }
+
+            int[] t = new int[rows.size() * width];
+            boolean[] f = new boolean[rows.size()];
+            for (int state = count - 1; state >= 0; state--) {
+                int to = merged[state] * width;
+                for (int symbol = 0; symbol < width; symbol++) {
+                    int target = transitions[state * width + symbol];
+                    t[to + symbol] = target == REJECT ? REJECT : merged[target];
+                }
+                f[merged[state]] = finals[state];
+            }
+            transitions = t;
+            finals = f;
+        }
+    }
+
+    // a state's row of the transition table, and whether it's final
+    private static final class Row {
+        private final int[] transitions;
+        private final int offset;
+        private final int width;
+        private final boolean isFinal;
+        private final int hash;
+
+        Row(int[] transitions, int offset, int width, boolean isFinal) {
+            this.transitions = transitions;
+            this.offset = offset;
+            this.width = width;
+            this.isFinal = isFinal;
+            int h = isFinal ? 1 : 0;
+            for (int i = offset; i < offset + width; i++) {
+                h = 31 * h + transitions[i];
+            }
+            hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Row)) {
+                return false;
+            }
+            Row other = (Row) o;
+            return hash == other.hash && isFinal == other.isFinal
+                    && Arrays.equals(transitions, offset, offset + width,
+                    other.transitions, other.offset, other.offset + other.width);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    //
+    // The Glushkov construction, over the particles of the model: the
+    // positions are the element particles, numbered as particles.
+    //
+    private static final class Glushkov {
+        private final ContentModel model;
+        private final int size;
+        private final boolean[] nullable;
+        private final BitSet[] first;
+        private final BitSet[] last;
+        private final BitSet[] follow;
+        // symbol of each element particle
+        private final int[] symbols;
+        private final String[] names;
+
+        Glushkov(ContentModel model) {
+            this.model = model;
+            size = model.size();
+            nullable = new boolean[size];
+            first = new BitSet[size];
+            last = new BitSet[size];
+            follow = new BitSet[size];
+            symbols = new int[size];
+
+            Map<String, Integer> numbers = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                String name = model.getName(i);
+                if (name != null) {
+                    Integer symbol = numbers.putIfAbsent(name, numbers.size());
+                    symbols[i] = symbol != null ? symbol : numbers.size() - 1;
+                    follow[i] = new BitSet(size);
+                }
+            }
+            names = numbers.keySet().toArray(new String[0]);
+            visit(0);
+        }
+
+        private void visit(int particle) {
+            if (!model.isGroup(particle)) {
+                first[particle] = new BitSet(size);
+                first[particle].set(particle);
+                last[particle] = first[particle];
+            } else if (model.getConnector(particle) == DTDEventListener.CHOICE) {
+                BitSet f = new BitSet(size);
+                BitSet l = new BitSet(size);
+                boolean n = false;
+                for (int i = particle + 1; i < model.getEnd(particle); i = model.getEnd(i)) {
+                    visit(i);
+                    f.or(first[i]);
+                    l.or(last[i]);
+                    n |= nullable[i];
+                }
+                // (#PCDATA) chooses among no elements
+                first[particle] = f;
+                last[particle] = l;
+                nullable[particle] = n || f.isEmpty();
+            } else {
+                BitSet f = new BitSet(size);
+                BitSet l = new BitSet(size);
+                boolean n = true;
+                for (int i = particle + 1; i < model.getEnd(particle); i = model.getEnd(i)) {
+                    visit(i);
+                    if (n) {
+                        f.or(first[i]);
+                    }
+                    // what may end the sequence so far is followed by this
+                    for (int p = l.nextSetBit(0); p >= 0; p = l.nextSetBit(p + 1)) {
+                        follow[p].or(first[i]);
+                    }
+                    if (!nullable[i]) {
+                        l.clear();
+                    }
+                    l.or(last[i]);
+                    n &= nullable[i];
+                }
+                first[particle] = f;
+                last[particle] = l;
+                nullable[particle] = n;
+            }
+
+            short occurrence = model.getOccurrence(particle);
+            if (occurrence == DTDEventListener.OCCURRENCE_ZERO_OR_MORE
+                    || occurrence == DTDEventListener.OCCURRENCE_ZERO_OR_ONE) {
+                nullable[particle] = true;
+            }
+            if (occurrence == DTDEventListener.OCCURRENCE_ZERO_OR_MORE
+                    || occurrence == DTDEventListener.OCCURRENCE_ONE_OR_MORE) {
+                BitSet l = last[particle];
+                for (int p = l.nextSetBit(0); p >= 0; p = l.nextSetBit(p + 1)) {
+                    follow[p].or(first[particle]);
+                }
+            }
+        }
+
+        // whether no two positions in the set are the same element
+        private boolean isDeterministic(BitSet positions, BitSet seen) {
+            seen.clear();
+            for (int p = positions.nextSetBit(0); p >= 0 && p < size; p = positions.nextSetBit(p + 1)) {
+                if (seen.get(symbols[p])) {
+                    return false;
+                }
+                seen.set(symbols[p]);
+            }
+            return true;
+        }
+
+        ContentAutomaton toAutomaton() {
+            // the states of the Glushkov automaton: the start, then one
+            // per position, the one the last child matched; those followed
+            // by the same positions, and final alike, are one
+            int[] states = new int[size + 1];
+            Map<BitSet, Integer> numbers = new HashMap<>();
+            List<BitSet> nexts = new ArrayList<>();
+            for (int p = -1; p < size; p++) {
+                if (p >= 0 && follow[p] == null) {
+                    continue;
+                }
+                // the positions which may come next, with bit size for final
+                BitSet key = (BitSet) (p < 0 ? first[0] : follow[p]).clone();
+                key.set(size, p < 0 ? nullable[0] : last[0].get(p));
+                Integer known = numbers.putIfAbsent(key, nexts.size());
+                if (known == null) {
+                    known = nexts.size();
+                    nexts.add(key);
+                }
+                states[p + 1] = known;
+            }
+
+            BitSet seen = new BitSet(names.length);
+            for (BitSet next : nexts) {
+                if (!isDeterministic(next, seen)) {
+                    return subsets();
+                }
+            }
+
+            int width = names.length;
+            int count = nexts.size();
+            int[] transitions = new int[count * width];
+            boolean[] finals = new boolean[count];
+            Arrays.fill(transitions, REJECT);
+            for (int state = 0; state < count; state++) {
+                BitSet next = nexts.get(state);
+                for (int q = next.nextSetBit(0); q >= 0 && q < size; q = next.nextSetBit(q + 1)) {
+                    transitions[state * width + symbols[q]] = states[q + 1];
+                }
+                finals[state] = next.get(size);
+            }
+            return merge(names, transitions, finals, true);
+        }
+
+        private ContentAutomaton subsets() {
+            // each state is the set of positions the last child may have
+            // matched; the start state, having matched none, is empty
+            int width = names.length;
+            List<BitSet> states = new ArrayList<>();
+            Map<BitSet, Integer> numbers = new HashMap<>();
+            states.add(new BitSet(size));
+            numbers.put(states.get(0), 0);
+            int[] transitions = new int[16 * Math.max(width, 1)];
+            BitSet[] targets = new BitSet[width];
+
+            for (int state = 0; state < states.size(); state++) {
+                BitSet matched = states.get(state);
+                BitSet next = state == 0 ? first[0] : new BitSet(size);
+                for (int p = matched.nextSetBit(0); p >= 0; p = matched.nextSetBit(p + 1)) {
+                    next.or(follow[p]);
+                }
+                Arrays.fill(targets, null);
+                for (int p = next.nextSetBit(0); p >= 0; p = next.nextSetBit(p + 1)) {
+                    if (targets[symbols[p]] == null) {
+                        targets[symbols[p]] = new BitSet(size);
+                    }
+                    targets[symbols[p]].set(p);
+                }
+
+                if ((state + 1) * width > transitions.length) {
+                    transitions = Arrays.copyOf(transitions, 2 * transitions.length);
+                }
+                for (int symbol = 0; symbol < width; symbol++) {
+                    int target = REJECT;
+                    if (targets[symbol] != null) {
+                        Integer known = numbers.get(targets[symbol]);
+                        if (known == null) {
+                            if (states.size() == MAX_STATES) {
+                                throw new IllegalArgumentException("content model too ambiguous: " + model);
+                            }
+                            known = states.size();
+                            states.add(targets[symbol]);
+                            numbers.put(targets[symbol], known);
+                        }
+                        target = known;
+                    }
+                    transitions[state * width + symbol] = target;
+                }
+            }
+
+            boolean[] finals = new boolean[states.size()];
+            finals[0] = nullable[0];
+            for (int state = 1; state < finals.length; state++) {
+                finals[state] = states.get(state).intersects(last[0]);
+            }
+            return merge(names, Arrays.copyOf(transitions, finals.length * width), finals, false);
+        }
+    }
+}
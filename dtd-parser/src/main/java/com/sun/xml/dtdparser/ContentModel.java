@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+/**
+ * The content model of an element declared with mixed or element
+ * content, as part of a {@link DTDModel}.
+ * <p>
+ * The particles of the model are numbered in document order, the
+ * outermost group being particle 0.  Each one is an element or a group
+ * of them; the particles in a group follow it directly, and end where
+ * {@link #getEnd(int)} says, so the children of group {@code g} are
+ * visited with:
+ * <pre>
+ * for (int i = g + 1; i &lt; model.getEnd(g); i = model.getEnd(i)) { ... }
+ * </pre>
+ * Mixed content is a {@link DTDEventListener#CHOICE} of the elements
+ * allowed, occurring {@link DTDEventListener#OCCURRENCE_ZERO_OR_MORE}
+ * times; {@code (#PCDATA)} is one of no elements.
+ * <p>
+ * Content models are immutable, and may be shared by any number of
+ * threads.
+ */
+public final class ContentModel {
+
+    private final short type;
+    // by particle: the element name, or null for a group
+    private final String[] names;
+    // by particle: the connector of a group, or -1 for an element
+    private final byte[] connectors;
+    private final byte[] occurrences;
+    // by particle: the first particle past it and its children
+    private final int[] ends;
+    // compiled on first use; compiling twice does no harm
+    private volatile ContentAutomaton automaton;
+
+    ContentModel(short type, String[] names, byte[] connectors, byte[] occurrences, int[] ends) {
+        this.type = type;
+        this.names = names;
+        this.connectors = connectors;
+        this.occurrences = occurrences;
+        this.ends = ends;
+    }
+
+    /**
+     * Returns the type of the content model.
+     *
+     * @return {@link DTDEventListener#CONTENT_MODEL_MIXED} or
+     * {@link DTDEventListener#CONTENT_MODEL_CHILDREN}
+     */
+    public short getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of particles, elements and groups.
+     *
+     * @return the number of particles, at least one
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns whether a particle is a group.
+     *
+     * @param particle the particle
+     * @return true for a group, false for an element
+     */
+    public boolean isGroup(int particle) {
+        return names[particle] == null;
+    }
+
+    /**
+     * Returns the name of an element particle.
+     *
+     * @param particle the particle
+     * @return the name of the element, or null for a group
+     */
+    public String getName(int particle) {
+        return names[particle];
+    }
+
+    /**
+     * Returns the connector of a group particle.
+     *
+     * @param particle the particle
+     * @return {@link DTDEventListener#CHOICE} or {@link DTDEventListener#SEQUENCE}
+     * for a group (a group of one is a sequence), or -1 for an element
+     */
+    public short getConnector(int particle) {
+        return connectors[particle];
+    }
+
+    /**
+     * Returns how often a particle occurs.
+     *
+     * @param particle the particle
+     * @return one of the {@code OCCURRENCE_} constants of {@link DTDEventListener}
+     */
+    public short getOccurrence(int particle) {
+        return occurrences[particle];
+    }
+
+    /**
+     * Returns the first particle past a particle and its children.
+     *
+     * @param particle the particle
+     * @return the particle following the last one in the group, or the
+     * one following the element
+     */
+    public int getEnd(int particle) {
+        return ends[particle];
+    }
+
+    /**
+     * Returns the automaton accepting the sequences of child elements
+     * this model allows, compiling it on first use.
+     *
+     * @return the automaton
+     * @throws IllegalArgumentException if the model is so ambiguous that
+     * it would take an unreasonable number of states
+     */
+    public ContentAutomaton getAutomaton() {
+        ContentAutomaton a = automaton;
+        if (a == null) {
+            a = ContentAutomaton.compile(this);
+            automaton = a;
+        }
+        return a;
+    }
+
+    /**
+     * Returns the content model as written in a DTD, e.g. {@code (a,(b|c)*)}.
+     *
+     * @return the content model, normalized
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (type == DTDEventListener.CONTENT_MODEL_MIXED) {
+            sb.append("(#PCDATA");
+            for (int i = 1; i < names.length; i++) {
+                sb.append('|').append(names[i]);
+            }
+            sb.append(names.length > 1 ? ")*" : ")");
+        } else {
+            append(sb, 0);
+        }
+        return sb.toString();
+    }
+
+    private void append(StringBuilder sb, int particle) {
+        if (names[particle] != null) {
+            sb.append(names[particle]);
+        } else {
+            char connector = connectors[particle] == DTDEventListener.CHOICE ? '|' : ',';
+            sb.append('(');
+            for (int i = particle + 1; i < ends[particle]; i = ends[i]) {
+                if (i > particle + 1) {
+                    sb.append(connector);
+                }
+                append(sb, i);
+            }
+            sb.append(')');
+        }
+        switch (occurrences[particle]) {
+            case DTDEventListener.OCCURRENCE_ZERO_OR_MORE:
+                sb.append('*');
+                break;
+            case DTDEventListener.OCCURRENCE_ONE_OR_MORE:
+                sb.append('+');
+                break;
+            case DTDEventListener.OCCURRENCE_ZERO_OR_ONE:
+                sb.append('?');
+                break;
+            default:
+                break;
+        }
+    }
+}
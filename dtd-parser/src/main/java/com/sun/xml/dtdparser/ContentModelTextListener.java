@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Implemented by a {@link DTDEventListener} which wants the text of
+ * content models, as well as the events describing them.  The parser
+ * only keeps that text for listeners implementing this interface.
+ * <p>
+ * The text is passed while a {@link DTDCache} records a parse, but isn't
+ * recorded: events replayed from the cache, or read by a
+ * {@link DTDEventReader}, don't include it.
+ */
+public interface ContentModelTextListener {
+
+    /**
+     * Receives the text of a mixed or element content model, as written
+     * in the DTD but with parameter entities expanded and no whitespace,
+     * e.g. {@code (#PCDATA|em)*} or {@code (head,(p|list)+)}.  It's called
+     * after the events describing the model, right before
+     * {@link DTDEventListener#endContentModel(String, short)}.
+     *
+     * @param elementName The name of the element.
+     * @param text        The content model, valid during the call only.
+     * @throws SAXException for errors
+     */
+    void contentModelText(String elementName, CharSequence text)
+            throws SAXException;
+}
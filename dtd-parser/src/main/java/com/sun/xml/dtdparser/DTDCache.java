@@ -0,0 +1,877 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cache of parsed DTDs, shared by any number of {@link DTDParser}s
+ * (see {@link DTDParser#setCache(DTDCache)}).
+ * <p>
+ * The first parse of a DTD records the events reported to the
+ * {@link DTDEventListener}, together with the locator position of
+ * each one.  Later parses of the same DTD replay those events instead
+ * of scanning it again.  A DTD is identified by the public and system
+ * IDs of its {@code InputSource} and by a SHA-256 digest of its content,
+ * so a changed file is never served stale.  External entities pulled in
+ * while parsing (external parameter entities, modules) are digested too
+ * and re-resolved and checked on every hit; the content of the DTD is
+ * read on a hit, but not decoded or parsed.
+ * <p>
+ * Only parses which complete are cached.  Entries are evicted in least
+ * recently used order once there are more than {@code maxEntries} of
+ * them, or once the recorded events hold more than {@code maxSize}
+ * characters in total.
+ * <p>
+ * When an event is replayed, {@link DTDEventListener#startDTD(InputEntity)}
+ * is passed an empty entity carrying the public and system ID of the DTD.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class DTDCache {
+
+    private static final int BUFSIZ = 8 * 1024;
+
+    private final int maxEntries;
+    private final long maxSize;
+
+    // guarded by "this"
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a cache holding at most 256 DTDs and 16M characters.
+     */
+    public DTDCache() {
+        this(256, 16L * 1024 * 1024);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param maxEntries the maximum number of DTDs kept
+     * @param maxSize    the maximum number of characters kept, summed
+     *                   over the recorded names, values and texts
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public DTDCache(int maxEntries, long maxSize) {
+        if (maxEntries <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("maxEntries: " + maxEntries + ", maxSize: " + maxSize);
+        }
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the number of DTDs in the cache.
+     * @return the number of cached DTDs
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total size of the cached DTDs, in characters.
+     * @return the cache weight
+     */
+    public synchronized long getWeight() {
+        return size;
+    }
+
+    /**
+     * Returns the number of parses served from the cache.
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of parses which had to scan the DTD.
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups, or 0 before the first lookup.
+     * @return the hit ratio
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Discards all cached DTDs; the statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DTDCache[entries=" + entries.size() + "/" + maxEntries
+                + ", size=" + size + "/" + maxSize
+                + ", hits=" + hits
+                + ", misses=" + misses + "]";
+    }
+
+    private synchronized Entry get(Key key) {
+        return entries.get(key);
+    }
+
+    private synchronized void count(boolean hit) {
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+    }
+
+    private synchronized void remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            size -= entry.size;
+        }
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        if (entry.size > maxSize) {
+            return;
+        }
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            size -= old.size;
+        }
+        size += entry.size;
+        for (Iterator<Entry> i = entries.values().iterator();
+                i.hasNext() && (entries.size() > maxEntries || size > maxSize);) {
+            size -= i.next().size;
+            i.remove();
+        }
+    }
+
+    /**
+     * Parses the DTD, or replays it from the cache.  Called by the parser
+     * once initialized for a new parse.
+     */
+    void parse(DTDParser parser, InputSource input)
+            throws IOException, SAXException {
+
+        Content content = Content.read(input);
+        if (content == null) {
+            // nothing we could digest; just parse it
+            parser.parseInternal(input);
+            return;
+        }
+
+        Key key = new Key(input.getPublicId(), input.getSystemId(), content.digest);
+        Entry entry = get(key);
+        if (entry != null) {
+            if (entry.isCurrent(parser.getEntityResolver())) {
+                count(true);
+                entry.replay(parser, input);
+                return;
+            }
+            remove(key, entry);
+        }
+        count(false);
+
+        Recorder recorder = new Recorder(parser);
+        parser.startRecording(recorder);
+        try {
+            parser.parseInternal(content.toInputSource(input));
+        } finally {
+            parser.stopRecording();
+        }
+        if (recorder.cacheable) {
+            put(key, new Entry(recorder));
+        }
+    }
+
+    //
+    // The content of an entity, read in full and digested
+    //
+    static final class Content {
+        // one or the other
+        final byte[] bytes;
+        final char[] chars;
+        final byte[] digest;
+
+        Content(byte[] bytes, char[] chars) {
+            this.bytes = bytes;
+            this.chars = chars;
+            MessageDigest md = newDigest();
+            if (bytes != null) {
+                md.update(bytes);
+            } else {
+                for (char c : chars) {
+                    md.update((byte) (c >> 8));
+                    md.update((byte) c);
+                }
+            }
+            this.digest = md.digest();
+        }
+
+        // returns null if the source has neither a character nor a byte stream
+        static Content read(InputSource in) throws IOException {
+            Reader reader = in.getCharacterStream();
+            if (reader != null) {
+                try (Reader r = reader) {
+                    CharArrayWriter out = new CharArrayWriter(BUFSIZ);
+                    char[] buf = new char[BUFSIZ];
+                    for (int len; (len = r.read(buf, 0, buf.length)) != -1;) {
+                        out.write(buf, 0, len);
+                    }
+                    return new Content(null, out.toCharArray());
+                }
+            }
+            InputStream stream = in.getByteStream();
+            if (stream != null) {
+                try (InputStream s = stream) {
+                    return new Content(s.readAllBytes(), null);
+                }
+            }
+            return null;
+        }
+
+        // a fresh source over the buffered content, with the IDs and encoding of the original
+        InputSource toInputSource(InputSource original) {
+            InputSource in = new InputSource();
+            in.setPublicId(original.getPublicId());
+            in.setSystemId(original.getSystemId());
+            if (bytes != null) {
+                in.setByteStream(new ByteArrayInputStream(bytes));
+                in.setEncoding(original.getEncoding());
+            } else {
+                in.setCharacterStream(new CharArrayReader(chars));
+            }
+            return in;
+        }
+
+        static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String publicId;
+        private final String systemId;
+        private final byte[] digest;
+        private final int hash;
+
+        Key(String publicId, String systemId, byte[] digest) {
+            this.publicId = publicId;
+            this.systemId = systemId;
+            this.digest = digest;
+            this.hash = Objects.hash(publicId, systemId) * 31 + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return hash == k.hash
+                    && Objects.equals(publicId, k.publicId)
+                    && Objects.equals(systemId, k.systemId)
+                    && Arrays.equals(digest, k.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    //
+    // An external entity read while recording, checked again on every hit
+    //
+    private static final class Dependency {
+        final String publicId;
+        final String systemId;
+        final byte[] digest;
+
+        Dependency(String publicId, String systemId, byte[] digest) {
+            this.publicId = publicId;
+            this.systemId = systemId;
+            this.digest = digest;
+        }
+
+        boolean isCurrent(EntityResolver resolver) {
+            try {
+                // as in ExternalEntity.getInputSource()
+                InputSource in = resolver.resolveEntity(publicId, systemId);
+                if (in == null) {
+                    in = Resolver.createInputSource(new URL(systemId), false);
+                }
+                Content content = Content.read(in);
+                return content != null && Arrays.equals(digest, content.digest);
+            } catch (IOException | SAXException e) {
+                // let the parser report it
+                return false;
+            }
+        }
+    }
+
+    //
+    // Recorded events
+    //
+    private static final int START_DTD = 0;
+    private static final int END_DTD = 1;
+    private static final int PROCESSING_INSTRUCTION = 2;
+    private static final int NOTATION_DECL = 3;
+    private static final int UNPARSED_ENTITY_DECL = 4;
+    private static final int INTERNAL_GENERAL_ENTITY_DECL = 5;
+    private static final int EXTERNAL_GENERAL_ENTITY_DECL = 6;
+    private static final int INTERNAL_PARAMETER_ENTITY_DECL = 7;
+    private static final int EXTERNAL_PARAMETER_ENTITY_DECL = 8;
+    private static final int COMMENT = 9;
+    private static final int CHARACTERS = 10;
+    private static final int IGNORABLE_WHITESPACE = 11;
+    private static final int START_CDATA = 12;
+    private static final int END_CDATA = 13;
+    private static final int ERROR = 14;
+    private static final int WARNING = 15;
+    private static final int START_CONTENT_MODEL = 16;
+    private static final int END_CONTENT_MODEL = 17;
+    private static final int ATTRIBUTE_DECL = 18;
+    private static final int CHILD_ELEMENT = 19;
+    private static final int MIXED_ELEMENT = 20;
+    private static final int START_MODEL_GROUP = 21;
+    private static final int END_MODEL_GROUP = 22;
+    private static final int CONNECTOR = 23;
+
+    private static final class Event {
+        final int type;
+        final String publicId;
+        final String systemId;
+        final int line;
+        final int column;
+        String s1, s2, s3, s4;
+        short n;
+        Object value;
+
+        Event(int type, DTDParser where) {
+            this.type = type;
+            this.publicId = where.getPublicId();
+            this.systemId = where.getSystemId();
+            this.line = where.getLineNumber();
+            this.column = where.getColumnNumber();
+        }
+
+        int size() {
+            int size = 8 + length(s1) + length(s2) + length(s3) + length(s4);
+            if (value instanceof char[]) {
+                size += ((char[]) value).length;
+            } else if (value instanceof String[]) {
+                for (String s : (String[]) value) {
+                    size += length(s);
+                }
+            }
+            return size;
+        }
+
+        private static int length(String s) {
+            return s == null ? 0 : s.length();
+        }
+
+        void fire(DTDEventListener h, InputEntity start) throws SAXException {
+            switch (type) {
+                case START_DTD:
+                    h.startDTD(start);
+                    break;
+                case END_DTD:
+                    h.endDTD();
+                    break;
+                case PROCESSING_INSTRUCTION:
+                    if (h instanceof DTDEventListener2) {
+                        ((DTDEventListener2) h).processingInstruction(s1, (CharSequence) s2);
+                    } else {
+                        h.processingInstruction(s1, s2);
+                    }
+                    break;
+                case NOTATION_DECL:
+                    h.notationDecl(s1, s2, s3);
+                    break;
+                case UNPARSED_ENTITY_DECL:
+                    h.unparsedEntityDecl(s1, s2, s3, s4);
+                    break;
+                case INTERNAL_GENERAL_ENTITY_DECL:
+                    if (h instanceof DTDEventListener2) {
+                        ((DTDEventListener2) h).internalGeneralEntityDecl(s1, (CharSequence) s2);
+                    } else {
+                        h.internalGeneralEntityDecl(s1, s2);
+                    }
+                    break;
+                case EXTERNAL_GENERAL_ENTITY_DECL:
+                    h.externalGeneralEntityDecl(s1, s2, s3);
+                    break;
+                case INTERNAL_PARAMETER_ENTITY_DECL:
+                    h.internalParameterEntityDecl(s1, s2);
+                    break;
+                case EXTERNAL_PARAMETER_ENTITY_DECL:
+                    h.externalParameterEntityDecl(s1, s2, s3);
+                    break;
+                case COMMENT:
+                    h.comment(s1);
+                    break;
+                case CHARACTERS: {
+                    char[] ch = ((char[]) value).clone();
+                    h.characters(ch, 0, ch.length);
+                    break;
+                }
+                case IGNORABLE_WHITESPACE: {
+                    char[] ch = ((char[]) value).clone();
+                    h.ignorableWhitespace(ch, 0, ch.length);
+                    break;
+                }
+                case START_CDATA:
+                    h.startCDATA();
+                    break;
+                case END_CDATA:
+                    h.endCDATA();
+                    break;
+                case ERROR:
+                    h.error((SAXParseException) value);
+                    break;
+                case WARNING:
+                    h.warning((SAXParseException) value);
+                    break;
+                case START_CONTENT_MODEL:
+                    h.startContentModel(s1, n);
+                    break;
+                case END_CONTENT_MODEL:
+                    h.endContentModel(s1, n);
+                    break;
+                case ATTRIBUTE_DECL: {
+                    String[] enums = (String[]) value;
+                    if (enums != null) {
+                        enums = enums.clone();
+                    }
+                    if (h instanceof DTDEventListener2) {
+                        ((DTDEventListener2) h).attributeDecl(s1, s2, s3, enums, n, (CharSequence) s4);
+                    } else {
+                        h.attributeDecl(s1, s2, s3, enums, n, s4);
+                    }
+                    break;
+                }
+                case CHILD_ELEMENT:
+                    h.childElement(s1, n);
+                    break;
+                case MIXED_ELEMENT:
+                    h.mixedElement(s1);
+                    break;
+                case START_MODEL_GROUP:
+                    h.startModelGroup();
+                    break;
+                case END_MODEL_GROUP:
+                    h.endModelGroup(n);
+                    break;
+                case CONNECTOR:
+                    h.connector(n);
+                    break;
+                default:
+                    throw new InternalError();
+            }
+        }
+    }
+
+    //
+    // A cached DTD
+    //
+    private static final class Entry {
+        final Event[] events;
+        final Dependency[] dependencies;
+        final long size;
+
+        Entry(Recorder recorder) {
+            events = recorder.events.toArray(new Event[0]);
+            dependencies = recorder.dependencies.toArray(new Dependency[0]);
+            long n = 0;
+            for (Event e : events) {
+                n += e.size();
+            }
+            size = n;
+        }
+
+        boolean isCurrent(EntityResolver resolver) {
+            for (Dependency d : dependencies) {
+                if (!d.isCurrent(resolver)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void replay(DTDParser parser, InputSource input)
+                throws IOException, SAXException {
+
+            DTDEventListener handler = parser.getDtdHandler();
+            InputEntity start = DTDEventReader.startEntity(handler, parser.getLocale(),
+                    input.getPublicId(), input.getSystemId());
+
+            Position position = new Position();
+            parser.startReplay(position);
+            try {
+                for (Event e : events) {
+                    position.event = e;
+                    e.fire(handler, start);
+                }
+            } finally {
+                parser.stopReplay();
+                start.close();
+            }
+        }
+    }
+
+    //
+    // Locator reporting the recorded positions during replay
+    //
+    static final class Position implements Locator {
+        Event event;
+
+        @Override
+        public String getPublicId() {
+            return event == null ? null : event.publicId;
+        }
+
+        @Override
+        public String getSystemId() {
+            return event == null ? null : event.systemId;
+        }
+
+        @Override
+        public int getLineNumber() {
+            return event == null ? -1 : event.line;
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return event == null ? -1 : event.column;
+        }
+    }
+
+    //
+    // Listener which records what the parser reports and passes it on.
+    // The parser also hands it the external entities it opens.
+    //
+    static final class Recorder implements DTDEventListener2, ContentModelTextListener {
+        private final DTDParser parser;
+        private final DTDEventListener target;
+        private final List<Event> events = new ArrayList<>();
+        private final List<Dependency> dependencies = new ArrayList<>();
+        private boolean cacheable = true;
+
+        Recorder(DTDParser parser) {
+            this.parser = parser;
+            this.target = parser.getDtdHandler();
+        }
+
+        DTDEventListener getTarget() {
+            return target;
+        }
+
+        InputSource external(String publicId, String systemId, InputSource in)
+                throws IOException {
+            Content content = Content.read(in);
+            if (content == null) {
+                cacheable = false;
+                return in;
+            }
+            dependencies.add(new Dependency(publicId, systemId, content.digest));
+            return content.toInputSource(in);
+        }
+
+        private Event add(int type) {
+            Event e = new Event(type, parser);
+            events.add(e);
+            return e;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator loc) {
+            target.setDocumentLocator(loc);
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) throws SAXException {
+            Event e = add(PROCESSING_INSTRUCTION);
+            e.s1 = target;
+            e.s2 = data;
+            this.target.processingInstruction(target, data);
+        }
+
+        @Override
+        public void notationDecl(String name, String publicId, String systemId) throws SAXException {
+            Event e = add(NOTATION_DECL);
+            e.s1 = name;
+            e.s2 = publicId;
+            e.s3 = systemId;
+            target.notationDecl(name, publicId, systemId);
+        }
+
+        @Override
+        public void unparsedEntityDecl(String name, String publicId, String systemId, String notationName)
+                throws SAXException {
+            Event e = add(UNPARSED_ENTITY_DECL);
+            e.s1 = name;
+            e.s2 = publicId;
+            e.s3 = systemId;
+            e.s4 = notationName;
+            target.unparsedEntityDecl(name, publicId, systemId, notationName);
+        }
+
+        @Override
+        public void internalGeneralEntityDecl(String name, String value) throws SAXException {
+            Event e = add(INTERNAL_GENERAL_ENTITY_DECL);
+            e.s1 = name;
+            e.s2 = value;
+            target.internalGeneralEntityDecl(name, value);
+        }
+
+        @Override
+        public void externalGeneralEntityDecl(String name, String publicId, String systemId)
+                throws SAXException {
+            Event e = add(EXTERNAL_GENERAL_ENTITY_DECL);
+            e.s1 = name;
+            e.s2 = publicId;
+            e.s3 = systemId;
+            target.externalGeneralEntityDecl(name, publicId, systemId);
+        }
+
+        @Override
+        public void internalParameterEntityDecl(String name, String value) throws SAXException {
+            Event e = add(INTERNAL_PARAMETER_ENTITY_DECL);
+            e.s1 = name;
+            e.s2 = value;
+            target.internalParameterEntityDecl(name, value);
+        }
+
+        @Override
+        public void externalParameterEntityDecl(String name, String publicId, String systemId)
+                throws SAXException {
+            Event e = add(EXTERNAL_PARAMETER_ENTITY_DECL);
+            e.s1 = name;
+            e.s2 = publicId;
+            e.s3 = systemId;
+            target.externalParameterEntityDecl(name, publicId, systemId);
+        }
+
+        @Override
+        public void startDTD(InputEntity in) throws SAXException {
+            add(START_DTD);
+            target.startDTD(in);
+        }
+
+        @Override
+        public void endDTD() throws SAXException {
+            add(END_DTD);
+            target.endDTD();
+        }
+
+        @Override
+        public void comment(String text) throws SAXException {
+            add(COMMENT).s1 = text;
+            target.comment(text);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            add(CHARACTERS).value = Arrays.copyOfRange(ch, start, start + length);
+            target.characters(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            add(IGNORABLE_WHITESPACE).value = Arrays.copyOfRange(ch, start, start + length);
+            target.ignorableWhitespace(ch, start, length);
+        }
+
+        @Override
+        public void startCDATA() throws SAXException {
+            add(START_CDATA);
+            target.startCDATA();
+        }
+
+        @Override
+        public void endCDATA() throws SAXException {
+            add(END_CDATA);
+            target.endCDATA();
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) throws SAXException {
+            // the parse fails, nothing gets cached
+            cacheable = false;
+            target.fatalError(e);
+        }
+
+        @Override
+        public void error(SAXParseException e) throws SAXException {
+            add(ERROR).value = e;
+            target.error(e);
+        }
+
+        @Override
+        public void warning(SAXParseException e) throws SAXException {
+            add(WARNING).value = e;
+            target.warning(e);
+        }
+
+        @Override
+        public void startContentModel(String elementName, short contentModelType) throws SAXException {
+            Event e = add(START_CONTENT_MODEL);
+            e.s1 = elementName;
+            e.n = contentModelType;
+            target.startContentModel(elementName, contentModelType);
+        }
+
+        @Override
+        public void endContentModel(String elementName, short contentModelType) throws SAXException {
+            Event e = add(END_CONTENT_MODEL);
+            e.s1 = elementName;
+            e.n = contentModelType;
+            target.endContentModel(elementName, contentModelType);
+        }
+
+        @Override
+        public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                  String[] enumeration, short attributeUse, String defaultValue)
+                throws SAXException {
+            Event e = add(ATTRIBUTE_DECL);
+            e.s1 = elementName;
+            e.s2 = attributeName;
+            e.s3 = attributeType;
+            e.s4 = defaultValue;
+            e.n = attributeUse;
+            e.value = enumeration == null ? null : enumeration.clone();
+            target.attributeDecl(elementName, attributeName, attributeType, enumeration,
+                    attributeUse, defaultValue);
+        }
+
+        @Override
+        public void childElement(String elementName, short occurrence) throws SAXException {
+            Event e = add(CHILD_ELEMENT);
+            e.s1 = elementName;
+            e.n = occurrence;
+            target.childElement(elementName, occurrence);
+        }
+
+        @Override
+        public void mixedElement(String elementName) throws SAXException {
+            add(MIXED_ELEMENT).s1 = elementName;
+            target.mixedElement(elementName);
+        }
+
+        @Override
+        public void startModelGroup() throws SAXException {
+            add(START_MODEL_GROUP);
+            target.startModelGroup();
+        }
+
+        @Override
+        public void endModelGroup(short occurrence) throws SAXException {
+            add(END_MODEL_GROUP).n = occurrence;
+            target.endModelGroup(occurrence);
+        }
+
+        @Override
+        public void connector(short connectorType) throws SAXException {
+            add(CONNECTOR).n = connectorType;
+            target.connector(connectorType);
+        }
+
+        // not recorded: the parser only keeps the text for a target
+        // asking for it
+        @Override
+        public void contentModelText(String elementName, CharSequence text) throws SAXException {
+            ((ContentModelTextListener) target).contentModelText(elementName, text);
+        }
+
+        // the text is recorded as a string, but a target taking views
+        // is passed the parser's own, as it would be without a cache
+
+        @Override
+        public void processingInstruction(String target, CharSequence data) throws SAXException {
+            if (!(this.target instanceof DTDEventListener2)) {
+                processingInstruction(target, data.toString());
+                return;
+            }
+            Event e = add(PROCESSING_INSTRUCTION);
+            e.s1 = target;
+            e.s2 = data.toString();
+            ((DTDEventListener2) this.target).processingInstruction(target, data);
+        }
+
+        @Override
+        public void internalGeneralEntityDecl(String name, CharSequence value) throws SAXException {
+            if (!(target instanceof DTDEventListener2)) {
+                internalGeneralEntityDecl(name, value.toString());
+                return;
+            }
+            Event e = add(INTERNAL_GENERAL_ENTITY_DECL);
+            e.s1 = name;
+            e.s2 = value.toString();
+            ((DTDEventListener2) target).internalGeneralEntityDecl(name, value);
+        }
+
+        @Override
+        public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                  String[] enumeration, short attributeUse, CharSequence defaultValue)
+                throws SAXException {
+            String value = defaultValue != null ? defaultValue.toString() : null;
+            if (!(target instanceof DTDEventListener2)) {
+                attributeDecl(elementName, attributeName, attributeType, enumeration, attributeUse, value);
+                return;
+            }
+            Event e = add(ATTRIBUTE_DECL);
+            e.s1 = elementName;
+            e.s2 = attributeName;
+            e.s3 = attributeType;
+            e.s4 = value;
+            e.n = attributeUse;
+            e.value = enumeration == null ? null : enumeration.clone();
+            ((DTDEventListener2) target).attributeDecl(elementName, attributeName, attributeType, enumeration,
+                    attributeUse, defaultValue);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Extends {@link DTDEventListener} with variants of the events carrying
+ * text, which pass it as a {@code CharSequence} over the parser's own
+ * buffer instead of a new {@code String}.  A listener implementing this
+ * interface gets these variants in place of the others; by default, they
+ * convert the text and call the others.
+ * <p>
+ * A {@code CharSequence} passed to these methods is only valid until the
+ * method returns, since the parser reuses its buffer: listeners keeping
+ * the text must copy it, e.g. with {@code toString()}.  Listeners which
+ * only look at the text, or hash it, save an allocation per event.
+ * <p>
+ * Events replayed from a {@link DTDCache}, or read by a
+ * {@link DTDEventReader}, are passed to these variants too, the text
+ * being a {@code String} then.  While a {@code DTDCache} records a parse,
+ * the listener gets the parser's buffer as it would without a cache.
+ */
+public interface DTDEventListener2 extends DTDEventListener {
+
+    /**
+     * Receive notification of a Processing Instruction.
+     *
+     * @param target The target of the processing instruction.
+     * @param data   The instruction itself, valid during the call only.
+     * @throws SAXException for errors
+     * @see #processingInstruction(String, String)
+     */
+    default void processingInstruction(String target, CharSequence data)
+            throws SAXException {
+        processingInstruction(target, data.toString());
+    }
+
+    /**
+     * Receive notification of a internal general entity declaration event.
+     *
+     * @param name  The internal general entity name.
+     * @param value The value of the entity, valid during the call only.
+     * @throws SAXException for errors
+     * @see #internalGeneralEntityDecl(String, String)
+     */
+    default void internalGeneralEntityDecl(String name, CharSequence value)
+            throws SAXException {
+        internalGeneralEntityDecl(name, value.toString());
+    }
+
+    /**
+     * For each entry in an ATTLIST declaration, this event will be fired.
+     *
+     * @param defaultValue The default value of the attribute, or null if
+     *                     there is none; valid during the call only.
+     * @throws SAXException for errors
+     * @see #attributeDecl(String, String, String, String[], short, String)
+     */
+    default void attributeDecl(String elementName, String attributeName, String attributeType,
+                               String[] enumeration, short attributeUse, CharSequence defaultValue)
+            throws SAXException {
+        attributeDecl(elementName, attributeName, attributeType, enumeration, attributeUse,
+                defaultValue != null ? defaultValue.toString() : null);
+    }
+}
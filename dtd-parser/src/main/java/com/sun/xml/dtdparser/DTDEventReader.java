@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static com.sun.xml.dtdparser.DTDEventWriter.*;
+
+/**
+ * Replays a stream written by {@link DTDEventWriter} into a listener.
+ * <p>
+ * The listener first gets a locator, which reports the recorded
+ * positions as the events are replayed.  Its
+ * {@link DTDEventListener#startDTD(InputEntity)} method is passed an
+ * empty entity carrying the public and system ID of the DTD that was
+ * recorded.
+ */
+public final class DTDEventReader implements Locator {
+
+    private final InputStream in;
+    private final byte[] buf = new byte[8 * 1024];
+    private int start, finish;
+
+    private String[] strings = new String[64];
+    private int stringCount;
+
+    private String publicId;
+    private String systemId;
+    private int line = -1;
+    private int column = -1;
+
+    private DTDEventReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads all events from the stream and reports them to the listener.
+     * The stream is not closed.
+     *
+     * @param in       the stream, as written by a {@link DTDEventWriter}
+     * @param listener the listener to report to
+     * @throws IOException if the stream can't be read or is not in the
+     *                     expected format
+     * @throws SAXException as thrown by the listener
+     */
+    public static void read(InputStream in, DTDEventListener listener)
+            throws IOException, SAXException {
+        new DTDEventReader(in).replay(listener);
+    }
+
+    // an entity standing in for the DTD when events are replayed
+    static InputEntity startEntity(DTDEventListener h, Locale l, String publicId, String systemId)
+            throws IOException, SAXException {
+        InputSource empty = new InputSource(new StringReader(""));
+        empty.setPublicId(publicId);
+        empty.setSystemId(systemId);
+        InputEntity entity = InputEntity.getInputEntity(h, l);
+        entity.init(empty, null, null, false);
+        return entity;
+    }
+
+    //
+    // Locator
+    //
+    @Override
+    public String getPublicId() {
+        return publicId;
+    }
+
+    @Override
+    public String getSystemId() {
+        return systemId;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return line;
+    }
+
+    @Override
+    public int getColumnNumber() {
+        return column;
+    }
+
+    //
+    // Decoding
+    //
+    private boolean fill() throws IOException {
+        start = 0;
+        finish = in.read(buf, 0, buf.length);
+        if (finish <= 0) {
+            finish = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private int readByte() throws IOException {
+        if (start >= finish && !fill()) {
+            throw new EOFException();
+        }
+        return buf[start++] & 0xff;
+    }
+
+    private int readInt() throws IOException {
+        int n = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            n |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return n;
+            }
+        }
+        throw new StreamCorruptedException("bad number");
+    }
+
+    private int readSigned() throws IOException {
+        int n = readInt();
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private byte[] readBytes() throws IOException {
+        int length = readInt();
+        byte[] b = new byte[length];
+        int off = 0;
+        while (off < length) {
+            if (start >= finish && !fill()) {
+                throw new EOFException();
+            }
+            int n = Math.min(length - off, finish - start);
+            System.arraycopy(buf, start, b, off, n);
+            start += n;
+            off += n;
+        }
+        return b;
+    }
+
+    private String readString() throws IOException {
+        int ref = readInt();
+        if (ref == NULL_STRING) {
+            return null;
+        }
+        if (ref == NEW_STRING) {
+            String s = new String(readBytes(), StandardCharsets.UTF_8);
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+            strings[stringCount++] = s;
+            return s;
+        }
+        ref -= 2;
+        if (ref >= stringCount) {
+            throw new StreamCorruptedException("bad string reference");
+        }
+        return strings[ref];
+    }
+
+    private String[] readStrings() throws IOException {
+        int length = readInt();
+        if (length == 0) {
+            return null;
+        }
+        String[] s = new String[length - 1];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = readString();
+        }
+        return s;
+    }
+
+    private SAXParseException readException() throws IOException {
+        String message = readString();
+        String p = readString();
+        String s = readString();
+        int l = readSigned();
+        int c = readSigned();
+        return new SAXParseException(message, p, s, l, c);
+    }
+
+    private void replay(DTDEventListener h) throws IOException, SAXException {
+        for (byte b : MAGIC) {
+            if (readByte() != (b & 0xff)) {
+                throw new StreamCorruptedException("not a DTD event stream");
+            }
+        }
+        int version = readByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("unsupported version " + version);
+        }
+
+        h.setDocumentLocator(this);
+        for (;;) {
+            if (start >= finish && !fill()) {
+                return;
+            }
+            int opcode = buf[start++];
+            switch (opcode) {
+                case POSITION:
+                    publicId = readString();
+                    systemId = readString();
+                    line = readSigned();
+                    column = readSigned();
+                    break;
+                case START_DTD: {
+                    String p = readString();
+                    String s = readString();
+                    InputEntity entity = startEntity(h, null, p, s);
+                    try {
+                        h.startDTD(entity);
+                    } finally {
+                        entity.close();
+                    }
+                    break;
+                }
+                case END_DTD:
+                    h.endDTD();
+                    break;
+                case PROCESSING_INSTRUCTION: {
+                    String target = readString();
+                    String data = readString();
+                    if (h instanceof DTDEventListener2) {
+                        ((DTDEventListener2) h).processingInstruction(target, (CharSequence) data);
+                    } else {
+                        h.processingInstruction(target, data);
+                    }
+                    break;
+                }
+                case NOTATION_DECL:
+                    h.notationDecl(readString(), readString(), readString());
+                    break;
+                case UNPARSED_ENTITY_DECL:
+                    h.unparsedEntityDecl(readString(), readString(), readString(), readString());
+                    break;
+                case INTERNAL_GENERAL_ENTITY_DECL: {
+                    String name = readString();
+                    String value = readString();
+                    if (h instanceof DTDEventListener2) {
+                        ((DTDEventListener2) h).internalGeneralEntityDecl(name, (CharSequence) value);
+                    } else {
+                        h.internalGeneralEntityDecl(name, value);
+                    }
+                    break;
+                }
+                case EXTERNAL_GENERAL_ENTITY_DECL:
+                    h.externalGeneralEntityDecl(readString(), readString(), readString());
+                    break;
+                case INTERNAL_PARAMETER_ENTITY_DECL:
+                    h.internalParameterEntityDecl(readString(), readString());
+                    break;
+                case EXTERNAL_PARAMETER_ENTITY_DECL:
+                    h.externalParameterEntityDecl(readString(), readString(), readString());
+                    break;
+                case COMMENT:
+                    h.comment(readString());
+                    break;
+                case CHARACTERS: {
+                    char[] ch = new String(readBytes(), StandardCharsets.UTF_8).toCharArray();
+                    h.characters(ch, 0, ch.length);
+                    break;
+                }
+                case IGNORABLE_WHITESPACE: {
+                    char[] ch = new String(readBytes(), StandardCharsets.UTF_8).toCharArray();
+                    h.ignorableWhitespace(ch, 0, ch.length);
+                    break;
+                }
+                case START_CDATA:
+                    h.startCDATA();
+                    break;
+                case END_CDATA:
+                    h.endCDATA();
+                    break;
+                case FATAL_ERROR:
+                    h.fatalError(readException());
+                    break;
+                case ERROR:
+                    h.error(readException());
+                    break;
+                case WARNING:
+                    h.warning(readException());
+                    break;
+                case START_CONTENT_MODEL:
+                    h.startContentModel(readString(), (short) readInt());
+                    break;
+                case END_CONTENT_MODEL:
+                    h.endContentModel(readString(), (short) readInt());
+                    break;
+                case ATTRIBUTE_DECL: {
+                    String element = readString();
+                    String name = readString();
+                    String type = readString();
+                    String[] enums = readStrings();
+                    short use = (short) readInt();
+                    String value = readString();
+                    if (h instanceof DTDEventListener2) {
+                        ((DTDEventListener2) h).attributeDecl(element, name, type, enums, use, (CharSequence) value);
+                    } else {
+                        h.attributeDecl(element, name, type, enums, use, value);
+                    }
+                    break;
+                }
+                case CHILD_ELEMENT:
+                    h.childElement(readString(), (short) readInt());
+                    break;
+                case MIXED_ELEMENT:
+                    h.mixedElement(readString());
+                    break;
+                case START_MODEL_GROUP:
+                    h.startModelGroup();
+                    break;
+                case END_MODEL_GROUP:
+                    h.endModelGroup((short) readInt());
+                    break;
+                case CONNECTOR:
+                    h.connector((short) readInt());
+                    break;
+                default:
+                    throw new StreamCorruptedException("bad opcode " + opcode);
+            }
+        }
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Listener which writes every DTD parsing event it gets, with the locator
+ * position of each one, to a compact binary stream.
+ * {@link DTDEventReader} replays such a stream into any listener, much
+ * faster than the DTD text can be parsed again:
+ * <pre>
+ *  try (DTDEventWriter writer = new DTDEventWriter(out)) {
+ *      parser.setDtdHandler(writer);
+ *      parser.parse(dtd);
+ *  }
+ *  ...
+ *  DTDEventReader.read(in, handler);
+ * </pre>
+ * <p>
+ * Validity errors and warnings are recorded and do not stop the parse;
+ * fatal errors are recorded and rethrown.  The stream is only complete
+ * once the writer is flushed or closed.
+ * <p>
+ * The format is a header ({@code "DTDE"} and a version byte) followed by
+ * one record per event: an opcode byte and its arguments.  Numbers are
+ * unsigned LEB128 varints; strings are written once, in UTF-8, and later
+ * referred to by their index.  A position record precedes each event
+ * reported at a different position than the one before it.
+ */
+public class DTDEventWriter implements DTDEventListener, Closeable, Flushable {
+
+    static final byte[] MAGIC = {'D', 'T', 'D', 'E'};
+    static final int VERSION = 1;
+
+    // opcodes
+    static final int POSITION = 1;
+    static final int START_DTD = 2;
+    static final int END_DTD = 3;
+    static final int PROCESSING_INSTRUCTION = 4;
+    static final int NOTATION_DECL = 5;
+    static final int UNPARSED_ENTITY_DECL = 6;
+    static final int INTERNAL_GENERAL_ENTITY_DECL = 7;
+    static final int EXTERNAL_GENERAL_ENTITY_DECL = 8;
+    static final int INTERNAL_PARAMETER_ENTITY_DECL = 9;
+    static final int EXTERNAL_PARAMETER_ENTITY_DECL = 10;
+    static final int COMMENT = 11;
+    static final int CHARACTERS = 12;
+    static final int IGNORABLE_WHITESPACE = 13;
+    static final int START_CDATA = 14;
+    static final int END_CDATA = 15;
+    static final int FATAL_ERROR = 16;
+    static final int ERROR = 17;
+    static final int WARNING = 18;
+    static final int START_CONTENT_MODEL = 19;
+    static final int END_CONTENT_MODEL = 20;
+    static final int ATTRIBUTE_DECL = 21;
+    static final int CHILD_ELEMENT = 22;
+    static final int MIXED_ELEMENT = 23;
+    static final int START_MODEL_GROUP = 24;
+    static final int END_MODEL_GROUP = 25;
+    static final int CONNECTOR = 26;
+
+    // string references: 0 is null, NEW_STRING introduces a string
+    // which gets the next index, anything else is that index + 2
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[8 * 1024];
+    private int count;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private Locator locator;
+    private String publicId;
+    private String systemId;
+    private int line = -1;
+    private int column = -1;
+
+    /**
+     * Constructs a writer; the header is written right away.
+     *
+     * @param out the stream written to, closed when the writer is
+     * @throws IOException for errors
+     */
+    public DTDEventWriter(OutputStream out) throws IOException {
+        this.out = Objects.requireNonNull(out);
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.write(buf, 0, count);
+        count = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    //
+    // Encoding
+    //
+    private void writeByte(int b) throws IOException {
+        if (count == buf.length) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+        buf[count++] = (byte) b;
+    }
+
+    private void writeInt(int n) throws IOException {
+        while ((n & ~0x7f) != 0) {
+            writeByte((n & 0x7f) | 0x80);
+            n >>>= 7;
+        }
+        writeByte(n);
+    }
+
+    // zigzag, for numbers which may be -1
+    private void writeSigned(int n) throws IOException {
+        writeInt((n << 1) ^ (n >> 31));
+    }
+
+    private void writeBytes(byte[] b) throws IOException {
+        writeInt(b.length);
+        if (b.length > buf.length - count) {
+            out.write(buf, 0, count);
+            count = 0;
+            if (b.length > buf.length) {
+                out.write(b);
+                return;
+            }
+        }
+        System.arraycopy(b, 0, buf, count, b.length);
+        count += b.length;
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            writeInt(NULL_STRING);
+            return;
+        }
+        Integer index = strings.get(s);
+        if (index != null) {
+            writeInt(index + 2);
+            return;
+        }
+        strings.put(s, strings.size());
+        writeInt(NEW_STRING);
+        writeBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeChars(char[] ch, int start, int length) throws IOException {
+        writeBytes(new String(ch, start, length).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeStrings(String[] s) throws IOException {
+        if (s == null) {
+            writeInt(0);
+            return;
+        }
+        writeInt(s.length + 1);
+        for (String v : s) {
+            writeString(v);
+        }
+    }
+
+    // every event starts with this
+    private void event(int opcode) throws SAXException {
+        try {
+            if (locator != null) {
+                String p = locator.getPublicId();
+                String s = locator.getSystemId();
+                int l = locator.getLineNumber();
+                int c = locator.getColumnNumber();
+                if (l != line || c != column || !Objects.equals(s, systemId) || !Objects.equals(p, publicId)) {
+                    writeByte(POSITION);
+                    writeString(p);
+                    writeString(s);
+                    writeSigned(l);
+                    writeSigned(c);
+                    publicId = p;
+                    systemId = s;
+                    line = l;
+                    column = c;
+                }
+            }
+            writeByte(opcode);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    private void exception(int opcode, SAXParseException e) throws SAXException {
+        event(opcode);
+        try {
+            writeString(e.getMessage());
+            writeString(e.getPublicId());
+            writeString(e.getSystemId());
+            writeSigned(e.getLineNumber());
+            writeSigned(e.getColumnNumber());
+        } catch (IOException x) {
+            throw new SAXException(x);
+        }
+    }
+
+    //
+    // DTDEventListener
+    //
+    @Override
+    public void setDocumentLocator(Locator loc) {
+        locator = loc;
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) throws SAXException {
+        event(PROCESSING_INSTRUCTION);
+        try {
+            writeString(target);
+            writeString(data);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void notationDecl(String name, String publicId, String systemId) throws SAXException {
+        event(NOTATION_DECL);
+        try {
+            writeString(name);
+            writeString(publicId);
+            writeString(systemId);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void unparsedEntityDecl(String name, String publicId, String systemId, String notationName)
+            throws SAXException {
+        event(UNPARSED_ENTITY_DECL);
+        try {
+            writeString(name);
+            writeString(publicId);
+            writeString(systemId);
+            writeString(notationName);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void internalGeneralEntityDecl(String name, String value) throws SAXException {
+        event(INTERNAL_GENERAL_ENTITY_DECL);
+        try {
+            writeString(name);
+            writeString(value);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void externalGeneralEntityDecl(String name, String publicId, String systemId)
+            throws SAXException {
+        event(EXTERNAL_GENERAL_ENTITY_DECL);
+        try {
+            writeString(name);
+            writeString(publicId);
+            writeString(systemId);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void internalParameterEntityDecl(String name, String value) throws SAXException {
+        event(INTERNAL_PARAMETER_ENTITY_DECL);
+        try {
+            writeString(name);
+            writeString(value);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void externalParameterEntityDecl(String name, String publicId, String systemId)
+            throws SAXException {
+        event(EXTERNAL_PARAMETER_ENTITY_DECL);
+        try {
+            writeString(name);
+            writeString(publicId);
+            writeString(systemId);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void startDTD(InputEntity in) throws SAXException {
+        event(START_DTD);
+        try {
+            writeString(in == null ? null : in.getPublicId());
+            writeString(in == null ? null : in.getSystemId());
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        event(END_DTD);
+    }
+
+    @Override
+    public void comment(String text) throws SAXException {
+        event(COMMENT);
+        try {
+            writeString(text);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        event(CHARACTERS);
+        try {
+            writeChars(ch, start, length);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        event(IGNORABLE_WHITESPACE);
+        try {
+            writeChars(ch, start, length);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        event(START_CDATA);
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        event(END_CDATA);
+    }
+
+    @Override
+    public void fatalError(SAXParseException e) throws SAXException {
+        exception(FATAL_ERROR, e);
+        throw e;
+    }
+
+    @Override
+    public void error(SAXParseException e) throws SAXException {
+        exception(ERROR, e);
+    }
+
+    @Override
+    public void warning(SAXParseException e) throws SAXException {
+        exception(WARNING, e);
+    }
+
+    @Override
+    public void startContentModel(String elementName, short contentModelType) throws SAXException {
+        event(START_CONTENT_MODEL);
+        try {
+            writeString(elementName);
+            writeInt(contentModelType);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void endContentModel(String elementName, short contentModelType) throws SAXException {
+        event(END_CONTENT_MODEL);
+        try {
+            writeString(elementName);
+            writeInt(contentModelType);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void attributeDecl(String elementName, String attributeName, String attributeType,
+                              String[] enumeration, short attributeUse, String defaultValue)
+            throws SAXException {
+        event(ATTRIBUTE_DECL);
+        try {
+            writeString(elementName);
+            writeString(attributeName);
+            writeString(attributeType);
+            writeStrings(enumeration);
+            writeInt(attributeUse);
+            writeString(defaultValue);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void childElement(String elementName, short occurrence) throws SAXException {
+        event(CHILD_ELEMENT);
+        try {
+            writeString(elementName);
+            writeInt(occurrence);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void mixedElement(String elementName) throws SAXException {
+        event(MIXED_ELEMENT);
+        try {
+            writeString(elementName);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void startModelGroup() throws SAXException {
+        event(START_MODEL_GROUP);
+    }
+
+    @Override
+    public void endModelGroup(short occurrence) throws SAXException {
+        event(END_MODEL_GROUP);
+        try {
+            writeInt(occurrence);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    @Override
+    public void connector(short connectorType) throws SAXException {
+        event(CONNECTOR);
+        try {
+            writeInt(connectorType);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The declarations of a DTD: elements, with their content models and
+ * attributes, entities and notations.  A model is built by a
+ * {@link DTDModelBuilder} from the events of one parse:
+ * <pre>
+ * DTDModelBuilder builder = new DTDModelBuilder();
+ * parser.setDtdHandler(builder);
+ * parser.parse(in);
+ * DTDModel dtd = builder.getModel();
+ * </pre>
+ * Declarations are listed in the order they first appear in; when
+ * one is repeated, the first one is binding, as XML says, and the
+ * others are ignored.
+ * <p>
+ * A model never changes once built, and may be shared by any number of
+ * threads without locking.
+ */
+public final class DTDModel {
+
+    private final List<Element> elements;
+    private final Map<String, Element> elementsByName;
+    private final List<Entity> entities;
+    private final Map<String, Entity> entitiesByName;
+    private final List<Entity> parameterEntities;
+    private final Map<String, Entity> parameterEntitiesByName;
+    private final List<Notation> notations;
+    private final Map<String, Notation> notationsByName;
+
+    DTDModel(Map<String, Element> elements, Map<String, Entity> entities,
+             Map<String, Entity> parameterEntities, Map<String, Notation> notations) {
+        this.elements = List.copyOf(elements.values());
+        this.elementsByName = Map.copyOf(elements);
+        this.entities = List.copyOf(entities.values());
+        this.entitiesByName = Map.copyOf(entities);
+        this.parameterEntities = List.copyOf(parameterEntities.values());
+        this.parameterEntitiesByName = Map.copyOf(parameterEntities);
+        this.notations = List.copyOf(notations.values());
+        this.notationsByName = Map.copyOf(notations);
+    }
+
+    /**
+     * Returns the elements, those with an attribute list declaration but
+     * no element declaration included.
+     *
+     * @return the elements, as an immutable list
+     */
+    public List<Element> getElements() {
+        return elements;
+    }
+
+    /**
+     * Looks up an element.
+     *
+     * @param name the name of the element
+     * @return the element, or null if it's neither declared nor has attributes
+     */
+    public Element getElement(String name) {
+        return elementsByName.get(name);
+    }
+
+    /**
+     * Returns the general entities, internal, external and unparsed,
+     * not including the predefined ones ({@code &lt;} and so on) unless
+     * the DTD declares them.
+     *
+     * @return the general entities, as an immutable list
+     */
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Looks up a general entity.
+     *
+     * @param name the name of the entity
+     * @return the entity, or null if it's not declared
+     */
+    public Entity getEntity(String name) {
+        return entitiesByName.get(name);
+    }
+
+    /**
+     * Returns the parameter entities reported while parsing.  The
+     * {@link DTDParser} doesn't report them, but other sources of events may.
+     *
+     * @return the parameter entities, as an immutable list
+     */
+    public List<Entity> getParameterEntities() {
+        return parameterEntities;
+    }
+
+    /**
+     * Looks up a parameter entity.
+     *
+     * @param name the name of the entity, without the {@code %}
+     * @return the entity, or null if it's not known
+     */
+    public Entity getParameterEntity(String name) {
+        return parameterEntitiesByName.get(name);
+    }
+
+    /**
+     * Returns the notations.
+     *
+     * @return the notations, as an immutable list
+     */
+    public List<Notation> getNotations() {
+        return notations;
+    }
+
+    /**
+     * Looks up a notation.
+     *
+     * @param name the name of the notation
+     * @return the notation, or null if it's not declared
+     */
+    public Notation getNotation(String name) {
+        return notationsByName.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "DTDModel[elements=" + elements.size()
+                + ", entities=" + entities.size()
+                + ", parameterEntities=" + parameterEntities.size()
+                + ", notations=" + notations.size() + "]";
+    }
+
+    /**
+     * An element, as declared by {@code <!ELEMENT>} and {@code <!ATTLIST>}.
+     */
+    public static final class Element {
+        private final String name;
+        private final short contentType;
+        private final ContentModel contentModel;
+        private final List<Attribute> attributes;
+
+        Element(String name, short contentType, ContentModel contentModel, List<Attribute> attributes) {
+            this.name = name;
+            this.contentType = contentType;
+            this.contentModel = contentModel;
+            this.attributes = List.copyOf(attributes);
+        }
+
+        /**
+         * Returns the name of the element.
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns whether there's an element declaration; if not, the
+         * element only has attributes.
+         * @return true if the element is declared
+         */
+        public boolean isDeclared() {
+            return contentType >= 0;
+        }
+
+        /**
+         * Returns the type of the content model.
+         * @return one of the {@code CONTENT_MODEL_} constants of
+         * {@link DTDEventListener}, or -1 if the element isn't declared
+         */
+        public short getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Returns the content model, for mixed or element content.
+         * @return the content model, or null for {@code EMPTY}, {@code ANY}
+         * or an element which isn't declared
+         */
+        public ContentModel getContentModel() {
+            return contentModel;
+        }
+
+        /**
+         * Returns the attributes, in declaration order.
+         * @return the attributes, as an immutable list
+         */
+        public List<Attribute> getAttributes() {
+            return attributes;
+        }
+
+        /**
+         * Looks up an attribute.
+         * @param name the name of the attribute
+         * @return the attribute, or null if it's not declared
+         */
+        public Attribute getAttribute(String name) {
+            // attribute lists are short: a scan beats hashing
+            for (Attribute a : attributes) {
+                if (a.name.equals(name)) {
+                    return a;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            String content;
+            if (contentModel != null) {
+                content = contentModel.toString();
+            } else if (contentType == DTDEventListener.CONTENT_MODEL_EMPTY) {
+                content = "EMPTY";
+            } else if (contentType == DTDEventListener.CONTENT_MODEL_ANY) {
+                content = "ANY";
+            } else {
+                content = "undeclared";
+            }
+            return name + " " + content;
+        }
+    }
+
+    /**
+     * An attribute, as declared by {@code <!ATTLIST>}.
+     */
+    public static final class Attribute {
+        private final String name;
+        private final String type;
+        private final List<String> enumeration;
+        private final short use;
+        private final String defaultValue;
+
+        Attribute(String name, String type, List<String> enumeration, short use, String defaultValue) {
+            this.name = name;
+            this.type = type;
+            this.enumeration = enumeration;
+            this.use = use;
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * Returns the name of the attribute.
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the type of the attribute, as one of the {@code TYPE_}
+         * constants of {@link DTDParser}; it's that very string, so it may
+         * be compared with {@code ==}.
+         * @return the type
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Returns the values of an enumerated or {@code NOTATION} attribute.
+         * @return the values, as an immutable list, or null for other types
+         */
+        public List<String> getEnumeration() {
+            return enumeration;
+        }
+
+        /**
+         * Returns the default declaration.
+         * @return one of the {@code USE_} constants of {@link DTDEventListener}
+         */
+        public short getUse() {
+            return use;
+        }
+
+        /**
+         * Returns the default value, as reported by the parser.
+         * @return the default value, or null if there is none
+         */
+        public String getDefaultValue() {
+            return defaultValue;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + (enumeration != null ? enumeration : type)
+                    + " " + use + " " + defaultValue;
+        }
+    }
+
+    /**
+     * An entity, general or parameter, as declared by {@code <!ENTITY>}.
+     */
+    public static final class Entity {
+        private final String name;
+        private final boolean isParameter;
+        private final String value;
+        private final String publicId;
+        private final String systemId;
+        private final String notationName;
+
+        Entity(String name, boolean isParameter, String value,
+               String publicId, String systemId, String notationName) {
+            this.name = name;
+            this.isParameter = isParameter;
+            this.value = value;
+            this.publicId = publicId;
+            this.systemId = systemId;
+            this.notationName = notationName;
+        }
+
+        /**
+         * Returns the name of the entity.
+         * @return the name, without {@code &} or {@code %}
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns whether this is a parameter entity.
+         * @return true for a parameter entity, false for a general one
+         */
+        public boolean isParameter() {
+            return isParameter;
+        }
+
+        /**
+         * Returns whether this is an internal entity, one with a value.
+         * @return true for an internal entity
+         */
+        public boolean isInternal() {
+            return value != null;
+        }
+
+        /**
+         * Returns whether this is an unparsed entity, one with a notation.
+         * @return true for an unparsed entity
+         */
+        public boolean isUnparsed() {
+            return notationName != null;
+        }
+
+        /**
+         * Returns the replacement text of an internal entity.
+         * @return the value, or null for an external entity
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the public ID of an external entity.
+         * @return the public ID, or null if there is none
+         */
+        public String getPublicId() {
+            return publicId;
+        }
+
+        /**
+         * Returns the system ID of an external entity, as reported.
+         * @return the system ID, or null for an internal entity
+         */
+        public String getSystemId() {
+            return systemId;
+        }
+
+        /**
+         * Returns the notation of an unparsed entity.
+         * @return the name of the notation, or null for a parsed entity
+         */
+        public String getNotationName() {
+            return notationName;
+        }
+
+        @Override
+        public String toString() {
+            return (isParameter ? "% " : "") + name + " "
+                    + (value != null ? value : publicId + " " + systemId + " " + notationName);
+        }
+    }
+
+    /**
+     * A notation, as declared by {@code <!NOTATION>}.
+     */
+    public static final class Notation {
+        private final String name;
+        private final String publicId;
+        private final String systemId;
+
+        Notation(String name, String publicId, String systemId) {
+            this.name = name;
+            this.publicId = publicId;
+            this.systemId = systemId;
+        }
+
+        /**
+         * Returns the name of the notation.
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the public ID of the notation.
+         * @return the public ID, or null if there is none
+         */
+        public String getPublicId() {
+            return publicId;
+        }
+
+        /**
+         * Returns the system ID of the notation.
+         * @return the system ID, or null if there is none
+         */
+        public String getSystemId() {
+            return systemId;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + publicId + " " + systemId;
+        }
+    }
+}
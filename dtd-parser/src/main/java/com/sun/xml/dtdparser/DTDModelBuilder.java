@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.SAXException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link DTDModel} from the events of a parse.  Set it as the
+ * {@link DTDParser}'s handler, or replay events to it, then get the
+ * model once the DTD has ended; the builder may be used again for
+ * another DTD.
+ * <p>
+ * Errors are handled as by {@link DTDHandlerBase}: validity errors and
+ * fatal errors end the parse, warnings are ignored.  Subclasses may
+ * override the error handling methods, and {@link #processingInstruction}
+ * and the like, but not the methods reporting declarations.
+ * <p>
+ * A builder is meant for one thread at a time; the models it builds
+ * are immutable.
+ */
+public class DTDModelBuilder extends DTDHandlerBase {
+
+    private final Map<String, Pending> elements = new LinkedHashMap<>();
+    private final Map<String, DTDModel.Entity> entities = new LinkedHashMap<>();
+    private final Map<String, DTDModel.Entity> parameterEntities = new LinkedHashMap<>();
+    private final Map<String, DTDModel.Notation> notations = new LinkedHashMap<>();
+    private DTDModel model;
+
+    // the content model being reported, as particles in document order
+    private Pending current;
+    private int size;
+    private String[] names = new String[16];
+    private byte[] connectors = new byte[16];
+    private byte[] occurrences = new byte[16];
+    private int[] ends = new int[16];
+    // the groups still open
+    private int[] groups = new int[8];
+    private int depth;
+
+    /**
+     * Constructs a builder.
+     */
+    public DTDModelBuilder() {}
+
+    /**
+     * Returns the model of the DTD last parsed.
+     *
+     * @return the model
+     * @throws IllegalStateException if no DTD has ended yet, or the last
+     * one to start didn't end
+     */
+    public DTDModel getModel() {
+        if (model == null) {
+            throw new IllegalStateException("no DTD parsed");
+        }
+        return model;
+    }
+
+    @Override
+    public void startDTD(InputEntity in) throws SAXException {
+        model = null;
+        elements.clear();
+        entities.clear();
+        parameterEntities.clear();
+        notations.clear();
+        current = null;
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        Map<String, DTDModel.Element> built = new LinkedHashMap<>();
+        for (Pending e : elements.values()) {
+            built.put(e.name, new DTDModel.Element(e.name, e.contentType, e.contentModel, e.attributes));
+        }
+        model = new DTDModel(built, entities, parameterEntities, notations);
+        elements.clear();
+        entities.clear();
+        parameterEntities.clear();
+        notations.clear();
+    }
+
+    @Override
+    public final void notationDecl(String name, String publicId, String systemId) throws SAXException {
+        notations.putIfAbsent(name, new DTDModel.Notation(name, publicId, systemId));
+    }
+
+    @Override
+    public final void unparsedEntityDecl(String name, String publicId,
+                                         String systemId, String notationName) throws SAXException {
+        entities.putIfAbsent(name, new DTDModel.Entity(name, false, null, publicId, systemId, notationName));
+    }
+
+    @Override
+    public final void internalGeneralEntityDecl(String name, String value) throws SAXException {
+        entities.putIfAbsent(name, new DTDModel.Entity(name, false, value, null, null, null));
+    }
+
+    @Override
+    public final void externalGeneralEntityDecl(String name, String publicId, String systemId)
+            throws SAXException {
+        entities.putIfAbsent(name, new DTDModel.Entity(name, false, null, publicId, systemId, null));
+    }
+
+    @Override
+    public final void internalParameterEntityDecl(String name, String value) throws SAXException {
+        parameterEntities.putIfAbsent(name, new DTDModel.Entity(name, true, value, null, null, null));
+    }
+
+    @Override
+    public final void externalParameterEntityDecl(String name, String publicId, String systemId)
+            throws SAXException {
+        parameterEntities.putIfAbsent(name, new DTDModel.Entity(name, true, null, publicId, systemId, null));
+    }
+
+    @Override
+    public final void attributeDecl(String elementName, String attributeName, String attributeType,
+                                    String[] enumeration, short attributeUse, String defaultValue)
+            throws SAXException {
+        Pending e = element(elementName);
+        for (DTDModel.Attribute a : e.attributes) {
+            if (a.getName().equals(attributeName)) {
+                return;
+            }
+        }
+        e.attributes.add(new DTDModel.Attribute(attributeName, type(attributeType),
+                enumeration != null ? List.of(enumeration) : null, attributeUse, defaultValue));
+    }
+
+    @Override
+    public final void startContentModel(String elementName, short contentModelType) throws SAXException {
+        Pending e = element(elementName);
+        // only the first declaration counts
+        current = e.contentType < 0 ? e : null;
+        if (current == null) {
+            return;
+        }
+        current.contentType = contentModelType;
+        size = 0;
+        depth = 0;
+        if (contentModelType == DTDEventListener.CONTENT_MODEL_MIXED) {
+            // (#PCDATA|a|b)* as a choice of the elements
+            add(null, DTDEventListener.CHOICE, DTDEventListener.OCCURRENCE_ZERO_OR_MORE);
+        }
+    }
+
+    @Override
+    public final void endContentModel(String elementName, short contentModelType) throws SAXException {
+        if (current == null) {
+            return;
+        }
+        if (contentModelType == DTDEventListener.CONTENT_MODEL_MIXED) {
+            ends[0] = size;
+        }
+        if (size > 0) {
+            current.contentModel = new ContentModel(contentModelType, Arrays.copyOf(names, size),
+                    Arrays.copyOf(connectors, size), Arrays.copyOf(occurrences, size), Arrays.copyOf(ends, size));
+            // a big model shouldn't keep big arrays around
+            if (names.length > 1024) {
+                names = new String[16];
+                connectors = new byte[16];
+                occurrences = new byte[16];
+                ends = new int[16];
+            }
+        }
+        current = null;
+    }
+
+    @Override
+    public final void childElement(String elementName, short occurrence) throws SAXException {
+        if (current != null) {
+            int particle = add(elementName, (short) -1, occurrence);
+            ends[particle] = particle + 1;
+        }
+    }
+
+    @Override
+    public final void mixedElement(String elementName) throws SAXException {
+        if (current != null) {
+            int particle = add(elementName, (short) -1, DTDEventListener.OCCURRENCE_ONCE);
+            ends[particle] = particle + 1;
+        }
+    }
+
+    @Override
+    public final void startModelGroup() throws SAXException {
+        if (current != null) {
+            if (depth == groups.length) {
+                groups = Arrays.copyOf(groups, 2 * depth);
+            }
+            // a sequence until a connector says otherwise
+            groups[depth++] = add(null, DTDEventListener.SEQUENCE, DTDEventListener.OCCURRENCE_ONCE);
+        }
+    }
+
+    @Override
+    public final void endModelGroup(short occurrence) throws SAXException {
+        if (current != null) {
+            int group = groups[--depth];
+            occurrences[group] = (byte) occurrence;
+            ends[group] = size;
+        }
+    }
+
+    @Override
+    public final void connector(short connectorType) throws SAXException {
+        if (current != null) {
+            connectors[groups[depth - 1]] = (byte) connectorType;
+        }
+    }
+
+    private Pending element(String name) {
+        return elements.computeIfAbsent(name, Pending::new);
+    }
+
+    // appends a particle, returning its index
+    private int add(String name, short connector, short occurrence) {
+        if (size == names.length) {
+            int length = 2 * size;
+            names = Arrays.copyOf(names, length);
+            connectors = Arrays.copyOf(connectors, length);
+            occurrences = Arrays.copyOf(occurrences, length);
+            ends = Arrays.copyOf(ends, length);
+        }
+        names[size] = name;
+        connectors[size] = (byte) connector;
+        occurrences[size] = (byte) occurrence;
+        return size++;
+    }
+
+    // the type constant, so types compare with ==
+    private static String type(String type) {
+        switch (type) {
+            case DTDParser.TYPE_CDATA:
+                return DTDParser.TYPE_CDATA;
+            case DTDParser.TYPE_ID:
+                return DTDParser.TYPE_ID;
+            case DTDParser.TYPE_IDREF:
+                return DTDParser.TYPE_IDREF;
+            case DTDParser.TYPE_IDREFS:
+                return DTDParser.TYPE_IDREFS;
+            case DTDParser.TYPE_ENTITY:
+                return DTDParser.TYPE_ENTITY;
+            case DTDParser.TYPE_ENTITIES:
+                return DTDParser.TYPE_ENTITIES;
+            case DTDParser.TYPE_NMTOKEN:
+                return DTDParser.TYPE_NMTOKEN;
+            case DTDParser.TYPE_NMTOKENS:
+                return DTDParser.TYPE_NMTOKENS;
+            case DTDParser.TYPE_NOTATION:
+                return DTDParser.TYPE_NOTATION;
+            case DTDParser.TYPE_ENUMERATION:
+                return DTDParser.TYPE_ENUMERATION;
+            default:
+                return type;
+        }
+    }
+
+    // an element as reported so far
+    private static final class Pending {
+        final String name;
+        short contentType = -1;
+        ContentModel contentModel;
+        final List<DTDModel.Attribute> attributes = new ArrayList<>(4);
+
+        Pending(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -18,7 +18,9 @@ import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,6 +29,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -63,11 +66,20 @@ public class DTDParser {
     public static final String TYPE_ENUMERATION = "ENUMERATION";
     // stack of input entities being merged
     private InputEntity in;
+    // popped padding entities, for the next PE expansions
+    private InputEntity spare;
     // temporaries reused during parsing
-    private StringBuffer strTmp;
-    private char[] nameTmp;
+    private TextBuffer strTmp;
     private NameCache nameCache;
     private final char[] charTmp = new char[2];
+    // whether the text of the content model at hand goes in strTmp
+    private boolean keepModelText;
+    // the names in the mixed content model at hand
+    private final List<String> mixedNames = new ArrayList<>();
+    // the values of the enumerated attribute type at hand
+    private final List<String> enumeration = new ArrayList<>();
+    // the replacement text of entities, and buffers to read others with
+    private final CharArena arena = new CharArena();
     // temporary DTD parsing state
     private boolean doLexicalPE;
     // DTD state, used during parsing
@@ -82,13 +94,61 @@ public class DTDParser {
     private DTDEventListener dtdHandler;
     private EntityResolver resolver;
     private Locale locale;
+    // parsed DTD cache, and its hooks while recording or replaying
+    private DTDCache cache;
+    private DTDCache.Recorder recorder;
+    private Locator replay;
+    private Executor prefetchExecutor;
+    private Prefetcher prefetcher;
+    // characters read from external entities at a time
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    // the text of a DTD being fed, if any, and whether its
+    // text declaration was looked for yet
+    private FeedReader feed;
+    private boolean fedTextDecl;
     // string constants -- use these copies so "==" works
     // package private
     static final String strANY = "ANY";
     static final String strEMPTY = "EMPTY";
 
+    // bounds on the temporaries kept between parses; anything
+    // bigger is dropped rather than pinned by an idle parser
+    static final int SCRATCH_LIMIT = 64 * 1024;
+    static final int NAME_CACHE_LIMIT = 16 * 1024;
+
+    static final int DEFAULT_BUFFER_SIZE = InputEntity.BUFSIZ - 1;
+    static final int MIN_BUFFER_SIZE = 64;
+
     private static final Logger LOGGER = Logger.getLogger(DTDParser.class.getName());
 
+    //
+    // Whether a handler class leaves internal general entity declarations
+    // to DTDHandlerBase, which ignores them; such handlers aren't told, so
+    // the values don't have to be turned into strings.  Looked up once per
+    // class; if in doubt, the handler is told.
+    //
+    private static final ClassValue<Boolean> IGNORES_ENTITY_VALUES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                if (type.getMethod("internalGeneralEntityDecl", String.class, String.class)
+                        .getDeclaringClass() != DTDHandlerBase.class) {
+                    return false;
+                }
+                return !DTDEventListener2.class.isAssignableFrom(type)
+                        || type.getMethod("internalGeneralEntityDecl", String.class, CharSequence.class)
+                        .getDeclaringClass() == DTDEventListener2.class;
+            } catch (NoSuchMethodException | SecurityException e) {
+                return false;
+            }
+        }
+    };
+
+    static boolean ignoresEntityValues(DTDEventListener handler) {
+        return IGNORES_ENTITY_VALUES.get(handler.getClass());
+    }
+
     /**
      * Constructs a DTDParser.
      */
@@ -161,8 +221,83 @@ public class DTDParser {
         return resolver;
     }
 
+    /**
+     * Lets applications share a cache of parsed DTDs between parses and
+     * parsers; DTDs found in the cache are not scanned again, their
+     * events are replayed to the DTD handler.
+     * @param cache the cache to use, or null to parse every DTD
+     */
+    public void setCache(DTDCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache of parsed DTDs in use, if any
+     * @return the cache, or null
+     */
+    public DTDCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Has external parameter entities read ahead of the parser, using
+     * the given executor.  When the parse starts, the document is read
+     * in and scanned for declarations of external parameter entities;
+     * those are read concurrently, and scanned in turn.  Modular DTDs
+     * referencing many modules are then parsed without waiting on I/O
+     * for each module in turn.
+     * <p>
+     * This is off by default.  It may read entities which are declared
+     * but never used, and the entity resolver is called from executor
+     * threads, so it must be safe for concurrent use (the default one
+     * is).  Entities not read by the time the parser needs them are read
+     * by the parser itself, as usual; errors are reported the same way
+     * with or without prefetching.
+     *
+     * @param executor runs the reads, or null not to read ahead
+     */
+    public void setPrefetchExecutor(Executor executor) {
+        prefetchExecutor = executor;
+    }
+
+    /**
+     * Returns the executor reading external parameter entities ahead, if any
+     * @return the executor, or null
+     */
+    public Executor getPrefetchExecutor() {
+        return prefetchExecutor;
+    }
+
+    /**
+     * Sets how many characters are read from an external entity at a
+     * time; the default is 8K.  Entities whose size is known up front
+     * (such as files) and below 1M characters are read in one go instead,
+     * and the buffer of a bigger one doubles on each read up to 64K
+     * characters, or stays at this size if that's larger.
+     *
+     * @param size the buffer size, in characters
+     * @throws IllegalArgumentException if {@code size} is less than 64
+     */
+    public void setBufferSize(int size) {
+        if (size < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        bufferSize = size;
+    }
+
+    /**
+     * Returns how many characters are read from an external entity at a time
+     * @return the buffer size, in characters
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
     /**
      * Used by applications to set handling of DTD parsing events.
+     * A handler implementing {@link DTDEventListener2} is passed the
+     * text of PIs, entity values and attribute defaults without copying
+     * it into strings.
      */
     public void setDtdHandler(DTDEventListener handler) {
         dtdHandler = handler;
@@ -207,7 +342,7 @@ public class DTDParser {
     public void parse(InputSource in)
             throws IOException, SAXException {
         init();
-        parseInternal(in);
+        parseOrReplay(in);
     }
 
     /**
@@ -235,17 +370,152 @@ public class DTDParser {
             inSource.setSystemId(uri);
         }
 
-        parseInternal(inSource);
+        parseOrReplay(inSource);
+    }
+
+    /**
+     * Starts parsing a DTD whose text is pushed to the parser as it
+     * arrives, rather than read from a stream: pass its bytes to
+     * {@link #feed(ByteBuffer)} chunk by chunk, then call
+     * {@link #endOfInput()}.  Events are reported to the DTD handler
+     * as soon as each declaration is complete, on the thread feeding
+     * the bytes, so no thread ever blocks waiting for input.
+     * <p>
+     * The input source names the DTD, for diagnostics and to resolve
+     * relative URIs against; its encoding, if set, overrides the
+     * autodetection of the encoding.  Its streams, if any, are not read.
+     * External parameter entities are still read through the entity
+     * resolver, as they're referenced.  No {@link DTDCache} is used.
+     *
+     * @param in names the DTD
+     * @throws IOException for errors
+     * @throws SAXException for errors
+     * @see #feed(ByteBuffer)
+     */
+    public void startFeed(InputSource in)
+            throws IOException, SAXException {
+        init();
+        if (in == null) {
+            fatal("P-000");
+        }
+        FeedReader reader = new FeedReader(this, in.getEncoding());
+        InputSource source = new InputSource(reader);
+        source.setPublicId(in.getPublicId());
+        source.setSystemId(in.getSystemId());
+        if (prefetchExecutor != null) {
+            prefetcher = new Prefetcher(prefetchExecutor, resolver);
+        }
+
+        step(() -> startDocument(source), false);
+        feed = reader;
+        fedTextDecl = false;
+    }
+
+    /**
+     * Passes the next chunk of a DTD's text to the parser, which parses
+     * the declarations it completes before returning.  All the remaining
+     * bytes of the buffer are consumed; a declaration or character cut
+     * off at the end of the chunk is kept until the rest arrives.
+     *
+     * @param bytes the next bytes of the DTD
+     * @throws IOException for errors
+     * @throws SAXException for errors; the parse is then over
+     * @throws IllegalStateException if no DTD is being fed
+     * @see #startFeed(InputSource)
+     */
+    public void feed(ByteBuffer bytes)
+            throws IOException, SAXException {
+        FeedReader reader = feeding();
+        step(() -> reader.write(bytes, false), false);
+    }
+
+    /**
+     * Ends the text of a DTD being fed, and so the parse.
+     *
+     * @throws IOException for errors
+     * @throws SAXException for errors
+     * @throws IllegalStateException if no DTD is being fed
+     * @see #startFeed(InputSource)
+     */
+    public void endOfInput()
+            throws IOException, SAXException {
+        FeedReader reader = feeding();
+        step(() -> {
+            reader.write(ByteBuffer.allocate(0), true);
+            parseFed();
+            endDocument();
+        }, true);
+    }
+
+    private FeedReader feeding() {
+        if (feed == null) {
+            throw new IllegalStateException("no DTD is being fed");
+        }
+        return feed;
+    }
+
+    /**
+     * Resets this parser to the state it was constructed in: the DTD
+     * handler, entity resolver and locale are cleared, so that the next
+     * {@code parse()} uses the defaults again.
+     * <p>
+     * Parsers are not thread-safe, but may be used for any number of
+     * parses one after the other.  Scratch buffers and the name cache
+     * are kept warm from one parse to the next (within size limits),
+     * so applications parsing many DTDs should hold on to a parser,
+     * or a few of them (see {@link DTDParserPool}), rather than create
+     * one per DTD.  Use this method before handing a parser over to
+     * unrelated code.
+     */
+    public void reset() {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+        dtdHandler = null;
+        resolver = null;
+        locale = null;
+        cache = null;
+        prefetchExecutor = null;
+        feed = null;
+        if (prefetcher != null) {
+            prefetcher.cancel();
+            prefetcher = null;
+        }
+        bufferSize = DEFAULT_BUFFER_SIZE;
+        doLexicalPE = false;
+
+        params.clear();
+        entities.clear();
+        notations.clear();
+        declaredElements.clear();
+        ids.clear();
     }
 
     // makes sure the parser is reset to "before a document"
     private void init() {
         in = null;
-
-        // alloc temporary data used in parsing
-        strTmp = new StringBuffer();
-        nameTmp = new char[20];
-        nameCache = new NameCache();
+        // they report to the handler and locale they were made with
+        spare = null;
+        feed = null;
+        // a feed left unfinished may have fetched with the old resolver
+        if (prefetcher != null) {
+            prefetcher.cancel();
+            prefetcher = null;
+        }
+
+        // alloc temporary data used in parsing, or reuse what
+        // the previous parse left behind
+        if (strTmp == null || strTmp.capacity() > SCRATCH_LIMIT) {
+            strTmp = new TextBuffer();
+        } else {
+            strTmp.clear();
+        }
+        if (nameCache == null) {
+            nameCache = new NameCache();
+        } else if (nameCache.size > NAME_CACHE_LIMIT) {
+            nameCache.clear();
+        }
 
         // reset doc info
 //        isInAttribute = false;
@@ -258,12 +528,12 @@ public class DTDParser {
         //    elements.clear ();
         declaredElements.clear();
 
-        // initialize predefined references ... re-interpreted later
-        builtin("amp", "&#38;");
-        builtin("lt", "&#60;");
-        builtin("gt", ">");
-        builtin("quot", "\"");
-        builtin("apos", "'");
+        // initialize predefined references ... re-interpreted later;
+        // the tables compare names with ==, so the key is the name the
+        // cache gives for references to them
+        for (InternalEntity entity : InternalEntity.BUILTINS) {
+            entities.put(nameCache.lookup(entity.name), entity);
+        }
 
         if (locale == null) {
             locale = Locale.getDefault();
@@ -276,12 +546,6 @@ public class DTDParser {
         }
     }
 
-    private void builtin(String entityName, String entityValue) {
-        InternalEntity entity;
-        entity = new InternalEntity(entityName, entityValue.toCharArray());
-        entities.put(entityName, entity);
-    }
-
     // //////////////////////////////////////////////////////////////
     //
     // parsing is by recursive descent, code roughly
@@ -293,18 +557,51 @@ public class DTDParser {
     // relatively easy to get diagnostics that make sense.
     //
     // //////////////////////////////////////////////////////////////
-    private void parseInternal(InputSource input)
+    private void parseOrReplay(InputSource input)
+            throws IOException, SAXException {
+
+        if (cache != null && input != null) {
+            cache.parse(this, input);
+        } else {
+            parseInternal(input);
+        }
+    }
+
+    // the cache records what the parser reports, and the external
+    // entities it reads, by standing in for the DTD handler
+    void startRecording(DTDCache.Recorder r) {
+        recorder = r;
+        dtdHandler = r;
+    }
+
+    void stopRecording() {
+        dtdHandler = recorder.getTarget();
+        recorder = null;
+    }
+
+    // while replaying, the locator reports the recorded positions
+    void startReplay(Locator position) {
+        replay = position;
+    }
+
+    void stopReplay() {
+        replay = null;
+    }
+
+    void parseInternal(InputSource input)
             throws IOException, SAXException {
 
         if (input == null) {
             fatal("P-000");
         }
 
-        try {
-            in = InputEntity.getInputEntity(dtdHandler, locale);
-            in.init(input, null, null, false);
-
-            dtdHandler.startDTD(in);
+        step(() -> {
+            InputSource source = input;
+            if (prefetchExecutor != null) {
+                prefetcher = new Prefetcher(prefetchExecutor, resolver);
+                source = prefetcher.preload(input);
+            }
+            startDocument(source);
 
             // [30] extSubset ::= TextDecl? extSubsetDecl
             // [31] extSubsetDecl ::= ( markupdecl | conditionalSect
@@ -313,54 +610,139 @@ public class DTDParser {
 
             ExternalEntity externalSubset = new ExternalEntity(in);
             externalParameterEntity(externalSubset);
+            endDocument();
+        }, true);
+    }
 
-            if (!in.isEOF()) {
-                fatal("P-001", new Object[]{Integer.toHexString(getc())});
-            }
-            afterRoot();
-            dtdHandler.endDTD();
+    // a part of a parse: all of it, or the start, a chunk
+    // or the end of a DTD being fed
+    private interface ParseStep {
+        void run() throws IOException, SAXException;
+    }
+
+    private void step(ParseStep step, boolean last)
+            throws IOException, SAXException {
+
+        boolean done = last;
+        try {
+            step.run();
 
         } catch (EndOfInputException e) {
+            done = true;
             if (!in.isDocument()) {
                 String name = in.getName();
                 do {    // force a relevant URI and line number
-                    in = in.pop();
+                    popReader();
                 } while (in.isInternal());
                 fatal("P-002", new Object[]{name});
             } else {
                 fatal("P-003", null);
             }
         } catch (RuntimeException e) {
+            done = true;
             LOGGER.log(Level.SEVERE, "Internal DTD parser error.", e);
             throw new SAXParseException(e.getMessage() != null
                     ? e.getMessage() : e.getClass().getName(),
                     getPublicId(), getSystemId(),
                     getLineNumber(), getColumnNumber());
 
-        } finally {
-            // recycle temporary data used during parsing
-            strTmp = null;
-            nameTmp = null;
-            nameCache = null;
+        } catch (IOException | SAXException e) {
+            done = true;
+            throw e;
 
-            // ditto input sources etc
-            if (in != null) {
-                in.close();
-                in = null;
+        } finally {
+            if (done) {
+                endParse();
             }
+        }
+    }
+
+    private void startDocument(InputSource input)
+            throws IOException, SAXException {
+
+        in = InputEntity.getInputEntity(dtdHandler, locale);
+        in.setBufferSize(bufferSize + 1);
+        in.setArena(arena);
+        in.init(input, null, null, false);
+
+        dtdHandler.startDTD(in);
+    }
+
+    private void endDocument()
+            throws IOException, SAXException {
 
-            // get rid of all DTD info ... some of it would be
-            // useful for editors etc., investigate later.
+        if (!in.isEOF()) {
+            fatal("P-001", new Object[]{Integer.toHexString(getc())});
+        }
+        afterRoot();
+        dtdHandler.endDTD();
+    }
+
+    private void endParse() {
+        // temporary data used during parsing is kept for
+        // the next parse; see init()
+
+        // input sources etc
+        if (in != null) {
+            in.close();
+            in.releaseBuffer();
+            in = null;
+        }
+        feed = null;
+        if (prefetcher != null) {
+            prefetcher.cancel();
+            prefetcher = null;
+        }
 
-            params.clear();
-            entities.clear();
-            notations.clear();
-            declaredElements.clear();
+        // get rid of all DTD info ... some of it would be
+        // useful for editors etc., investigate later.
+
+        params.clear();
+        entities.clear();
+        notations.clear();
+        declaredElements.clear();
 //        elements.clear();
-            ids.clear();
+        ids.clear();
+        // no entity is left to read from the arena
+        arena.clear();
+    }
+
+    // parses what's been fed of the DTD so far: the feed only
+    // passes on whole declarations, plus everything at the end
+    void parseFed()
+            throws IOException, SAXException {
+
+        if (!fedTextDecl) {
+            fedTextDecl = true;
+            maybeTextDecl();
+        }
+        for (;;) {
+            // pop PEs, but stop at the end of what was fed
+            if (in.isEOF()) {
+                if (in.isDocument()) {
+                    break;
+                }
+                popReader();
+                continue;
+            }
+            if (!maybeExtSubsetDecl()) {
+                fatal("P-059", new Object[]{in.getName()});
+            }
         }
     }
 
+    // the keyword of a conditional section that an internal
+    // parameter entity stands for, if it's declared yet; the
+    // name comes from the feed, not from the name cache
+    String conditionalKeyword(String peName) {
+        EntityDecl entity = params.getNonInterned(peName);
+        if (entity instanceof InternalEntity) {
+            InternalEntity value = (InternalEntity) entity;
+            return new String(value.buf, value.offset, value.length).trim();
+        }
+        return null;
+    }
+
     void afterRoot() throws SAXException {
         // Make sure all IDREFs match declared ID attributes.  We scan
         // after the document element is parsed, since XML allows forward
@@ -428,17 +810,10 @@ public class DTDParser {
     private String maybeGetName()
             throws IOException, SAXException {
 
-        NameCacheEntry entry = maybeGetNameCacheEntry();
-        return (entry == null) ? null : entry.name;
-    }
-
-    private NameCacheEntry maybeGetNameCacheEntry()
-            throws IOException, SAXException {
-
         // [5] Name ::= (Letter|'_'|':') (Namechar)*
         char c = getc();
 
-        if (!XmlChars.isLetter(c) && c != ':' && c != '_') {
+        if (!XmlChars.isNameStart(c)) {
             ungetc();
             return null;
         }
@@ -454,31 +829,18 @@ public class DTDParser {
         if (!XmlChars.isNameChar(c)) {
             fatal("P-006", new Object[]{c});
         }
-        return nameCharString(c).name;
+        return nameCharString(c);
     }
 
     // n.b. this gets used when parsing attribute values (for
     // internal references) so we can't use strTmp; it's also
     // a hotspot for CPU and memory in the parser (called at least
-    // once for each element) so this has been optimized a bit.
-    private NameCacheEntry nameCharString(char c)
+    // once for each element) so the entity scans the name right
+    // in its buffer.
+    private String nameCharString(char c)
             throws IOException, SAXException {
 
-        int i = 1;
-
-        nameTmp[0] = c;
-        for (;;) {
-            if ((c = in.getNameChar()) == 0) {
-                break;
-            }
-            if (i >= nameTmp.length) {
-                char[] tmp = new char[nameTmp.length + 10];
-                System.arraycopy(nameTmp, 0, tmp, 0, nameTmp.length);
-                nameTmp = tmp;
-            }
-            nameTmp[i++] = c;
-        }
-        return nameCache.lookupEntry(nameTmp, i);
+        return in.getName(c, nameCache);
     }
 
     //
@@ -512,7 +874,7 @@ public class DTDParser {
 //    isInAttribute = !isEntityValue;
 
         // get value into strTmp
-        strTmp = new StringBuffer();
+        strTmp.clear();
 
         // scan, allowing entity push/pop wherever ...
         // expanded entities can't terminate the literal!
@@ -520,7 +882,7 @@ public class DTDParser {
             if (in != source && in.isEOF()) {
                 // we don't report end of parsed entities
                 // within attributes (no SAX hooks)
-                in = in.pop();
+                popReader();
                 continue;
             }
             if ((c = getc()) == quote && in == source) {
@@ -608,7 +970,7 @@ public class DTDParser {
 
         if (entity instanceof InternalEntity) {
             InternalEntity value = (InternalEntity) entity;
-            pushReader(value.buf, name, !value.isPE);
+            pushReader(value, name, !value.isPE);
 
         } else if (entity instanceof ExternalEntity) {
             if (!isEntityValue) // must be a PE ...
@@ -649,7 +1011,7 @@ public class DTDParser {
 
         char c;
 
-        strTmp = new StringBuffer();
+        strTmp.clear();
         while ((c = in.getc()) != quote) {
             strTmp.append(c);
         }
@@ -669,8 +1031,7 @@ public class DTDParser {
                 fatal("P-016", new Object[]{c});
             }
         }
-        strTmp = new StringBuffer();
-        strTmp.append(retval);
+        // still in strTmp
         return normalize(false);
     }
 
@@ -692,7 +1053,7 @@ public class DTDParser {
         doLexicalPE = false;
         saveCommentText = false;
         if (saveCommentText) {
-            strTmp = new StringBuffer();
+            strTmp.clear();
         }
 
         oneComment:
@@ -765,7 +1126,7 @@ public class DTDParser {
         }
 
         if (maybeWhitespace()) {
-            strTmp = new StringBuffer();
+            strTmp.clear();
             try {
                 for (;;) {
                     // use in.getc to bypass PE processing
@@ -779,7 +1140,11 @@ public class DTDParser {
             } catch (EndOfInputException e) {
                 fatal("P-021");
             }
-            dtdHandler.processingInstruction(target, strTmp.toString());
+            if (dtdHandler instanceof DTDEventListener2) {
+                ((DTDEventListener2) dtdHandler).processingInstruction(target, strTmp);
+            } else {
+                dtdHandler.processingInstruction(target, strTmp.toString());
+            }
         } else {
             if (!in.peek("?>", null)) {
                 fatal("P-022");
@@ -1113,6 +1478,9 @@ public class DTDParser {
             dtdHandler.startContentModel(name, modelType = DTDEventListener.CONTENT_MODEL_ANY);
         } else {
             modelType = getMixedOrChildren(name);
+            if (keepModelText) {
+                ((ContentModelTextListener) dtdHandler).contentModelText(name, strTmp);
+            }
         }
 
         dtdHandler.endContentModel(name, modelType);
@@ -1144,16 +1512,20 @@ public class DTDParser {
         InputEntity start;
 
         // [47] children ::= (choice|seq) ('?'|'*'|'+')?
-        strTmp = new StringBuffer();
+        // the text of the model is only kept for those wanting it
+        // while recording for the cache, for the handler behind it
+        keepModelText = (recorder != null ? recorder.getTarget() : dtdHandler)
+                instanceof ContentModelTextListener;
+        strTmp.clear();
 
         nextChar('(', "F-028", elementName);
         start = in;
         maybeWhitespace();
-        strTmp.append('(');
+        modelText('(');
 
         short modelType;
         if (peek("#PCDATA")) {
-            strTmp.append("#PCDATA");
+            modelText("#PCDATA");
             dtdHandler.startContentModel(elementName, modelType = DTDEventListener.CONTENT_MODEL_MIXED);
             getMixed(elementName, start);
         } else {
@@ -1185,7 +1557,7 @@ public class DTDParser {
 
             tag = maybeGetName();
             if (tag != null) {
-                strTmp.append(tag);
+                modelText(tag);
 //                temp = new ElementModel(tag);
 //                getFrequency((RepeatableContent)temp);
 ///->
@@ -1193,7 +1565,7 @@ public class DTDParser {
 ///<-
             } else if (peek("(")) {
                 InputEntity next = in;
-                strTmp.append('(');
+                modelText('(');
                 maybeWhitespace();
 //                temp = getcps(element, next);
 //                getFrequency(temp);
@@ -1215,7 +1587,7 @@ public class DTDParser {
 //                    current.addChild(temp);
 //                }
                 if (c == type) {
-                    strTmp.append(type);
+                    modelText(type);
                     maybeWhitespace();
                     reportConnector(type);
                     continue;
@@ -1242,7 +1614,7 @@ public class DTDParser {
 //                retval = (ContentModel)current;
                 decided = true;
 //                current.addChild(temp);
-                strTmp.append(type);
+                modelText(type);
             }
             maybeWhitespace();
         } while (!peek(")"));
@@ -1250,12 +1622,24 @@ public class DTDParser {
         if (in != start) {
             error("V-014", new Object[]{elementName});
         }
-        strTmp.append(')');
+        modelText(')');
 
         dtdHandler.endModelGroup(getFrequency());
 //        return retval;
     }
 
+    private void modelText(char c) {
+        if (keepModelText) {
+            strTmp.append(c);
+        }
+    }
+
+    private void modelText(String s) {
+        if (keepModelText) {
+            strTmp.append(s);
+        }
+    }
+
     private void reportConnector(char type) throws SAXException {
         switch (type) {
             case '|':
@@ -1275,15 +1659,15 @@ public class DTDParser {
         final char c = getc();
 
         if (c == '?') {
-            strTmp.append(c);
+            modelText(c);
             return DTDEventListener.OCCURRENCE_ZERO_OR_ONE;
             //        original.setRepeat(Repeat.ZERO_OR_ONE);
         } else if (c == '+') {
-            strTmp.append(c);
+            modelText(c);
             return DTDEventListener.OCCURRENCE_ONE_OR_MORE;
             //        original.setRepeat(Repeat.ONE_OR_MORE);
         } else if (c == '*') {
-            strTmp.append(c);
+            modelText(c);
             return DTDEventListener.OCCURRENCE_ZERO_OR_MORE;
             //        original.setRepeat(Repeat.ZERO_OR_MORE);
         } else {
@@ -1300,23 +1684,25 @@ public class DTDParser {
         // [51] Mixed ::= '(' S? '#PCDATA' (S? '|' S? Name)* S? ')*'
         //        | '(' S? '#PCDATA'                   S? ')'
         maybeWhitespace();
-        if (peek(")*") || peek(")")) {
+        boolean star = peek(")*");
+        if (star || peek(")")) {
             if (in != start) {
                 error("V-014", new Object[]{elementName});
             }
-            strTmp.append(')');
+            modelText(star ? ")*" : ")");
 //            element.setContentModel(new StringModel(StringModelType.PCDATA));
             return;
         }
 
-        List<String> l = new ArrayList<>();
+        List<String> l = mixedNames;
+        l.clear();
 //    l.add(new StringModel(StringModelType.PCDATA));
 
 
         while (peek("|")) {
             String name;
 
-            strTmp.append('|');
+            modelText('|');
             maybeWhitespace();
 
             doLexicalPE = true;
@@ -1330,7 +1716,7 @@ public class DTDParser {
                 l.add(name);
                 dtdHandler.mixedElement(name);
             }
-            strTmp.append(name);
+            modelText(name);
             maybeWhitespace();
         }
 
@@ -1341,7 +1727,7 @@ public class DTDParser {
         if (in != start) {
             error("V-014", new Object[]{elementName});
         }
-        strTmp.append(')');
+        modelText(")*");
 //        ChoiceModel cm = new ChoiceModel((Collection)l);
 //    cm.setRepeat(Repeat.ZERO_OR_MORE);
 //       element.setContentModel(cm);
@@ -1438,7 +1824,8 @@ public class DTDParser {
                 nextChar('(', "F-029", null);
                 maybeWhitespace();
 
-                values = new ArrayList<>();
+                values = enumeration;
+                values.clear();
                 do {
                     String name;
                     if ((name = maybeGetName()) == null) {
@@ -1464,7 +1851,8 @@ public class DTDParser {
                 maybeWhitespace();
 
 ///            Vector v = new Vector ();
-                values = new ArrayList<>();
+                values = enumeration;
+                values.clear();
                 do {
                     String name = getNmtoken();
 ///                v.addElement (name);
@@ -1484,7 +1872,8 @@ public class DTDParser {
             }
 
             short attributeUse;
-            String defaultValue = null;
+            // in strTmp, if any
+            CharSequence defaultValue = null;
 
             // [60] DefaultDecl ::= '#REQUIRED' | '#IMPLIED'
             //        | (('#FIXED' S)? AttValue)
@@ -1507,10 +1896,9 @@ public class DTDParser {
 ///                a.setDefaultValue(strTmp.toString());
 
                 if (Objects.equals(typeName, TYPE_CDATA)) {
-                    defaultValue = normalize(false);
-                } else {
-                    defaultValue = strTmp.toString();
+                    strTmp.normalizeSpace();
                 }
+                defaultValue = strTmp;
 
 // TODO: implement this check
 ///            if (a.type() != Attribute.CDATA)
@@ -1530,10 +1918,9 @@ public class DTDParser {
 ///            else
 ///                a.setDefaultValue(strTmp.toString());
                 if (Objects.equals(typeName, TYPE_CDATA)) {
-                    defaultValue = normalize(false);
-                } else {
-                    defaultValue = strTmp.toString();
+                    strTmp.normalizeSpace();
                 }
+                defaultValue = strTmp;
 
 // TODO: implement this check
 ///            if (a.type() != Attribute.CDATA)
@@ -1542,8 +1929,8 @@ public class DTDParser {
 
             if (XML_LANG.equals(attName)
                     && defaultValue/* a.defaultValue()*/ != null
-                    && !isXmlLang(defaultValue/*a.defaultValue()*/)) {
-                error("P-033", new Object[]{defaultValue /*a.defaultValue()*/});
+                    && !isXmlLang(defaultValue.toString()/*a.defaultValue()*/)) {
+                error("P-033", new Object[]{defaultValue.toString() /*a.defaultValue()*/});
             }
 
 // TODO: isn't it an error to specify the same attribute twice?
@@ -1552,8 +1939,14 @@ public class DTDParser {
 ///            dtdHandler.attributeDecl(a);
 ///        }
 
-            String[] v = (values != null) ? values.toArray(new String[0]) : null;
-            dtdHandler.attributeDecl(elementName, attName, typeName, v, attributeUse, defaultValue);
+            String[] v = (values != null) ? values.toArray(new String[values.size()]) : null;
+            if (dtdHandler instanceof DTDEventListener2) {
+                ((DTDEventListener2) dtdHandler).attributeDecl(elementName, attName, typeName,
+                        v, attributeUse, defaultValue);
+            } else {
+                dtdHandler.attributeDecl(elementName, attName, typeName, v, attributeUse,
+                        defaultValue != null ? defaultValue.toString() : null);
+            }
             maybeWhitespace();
         }
         if (start != in) {
@@ -1567,35 +1960,8 @@ public class DTDParser {
     //
     // input in strTmp
     private String normalize(boolean invalidIfNeeded) {
-
-        // this can allocate an extra string...
-
-        String s = strTmp.toString();
-        String s2 = s.trim();
-        boolean didStrip = false;
-
-        if (!Objects.equals(s, s2)) {
-            s = s2;
-            didStrip = true;
-        }
-        strTmp = new StringBuffer();
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            if (!XmlChars.isSpace(c)) {
-                strTmp.append(c);
-                continue;
-            }
-            strTmp.append(' ');
-            while (++i < s.length() && XmlChars.isSpace(s.charAt(i))) {
-                didStrip = true;
-            }
-            i--;
-        }
-        if (didStrip) {
-            return strTmp.toString();
-        } else {
-            return s;
-        }
+        strTmp.normalizeSpace();
+        return strTmp.toString();
     }
 
     private boolean maybeConditionalSect()
@@ -1623,7 +1989,7 @@ public class DTDParser {
         if ("INCLUDE".equals(keyword)) {
             for (;;) {
                 while (in.isEOF() && in != start) {
-                    in = in.pop();
+                    popReader();
                 }
                 if (in.isEOF()) {
                     error("V-020", null);
@@ -1653,21 +2019,9 @@ public class DTDParser {
             //            ignoreSectcontents ']]>' Ignore)*
             // [65] Ignore ::= Char* - (Char* ('<![' | ']]>') Char*)
         } else if ("IGNORE".equals(keyword)) {
-            int nestlevel = 1;
             // ignoreSectcontents
             doLexicalPE = false;
-            while (nestlevel > 0) {
-                char c = getc();    // will pop input entities
-                if (c == '<') {
-                    if (peek("![")) {
-                        nestlevel++;
-                    }
-                } else if (c == ']') {
-                    if (peek("]>")) {
-                        nestlevel--;
-                    }
-                }
-            }
+            in.skipIgnored();
         } else {
             fatal("P-048", new Object[]{keyword});
         }
@@ -1770,7 +2124,7 @@ public class DTDParser {
 
         if (entity instanceof InternalEntity) {
             InternalEntity value = (InternalEntity) entity;
-            pushReader(value.buf, name, false);
+            pushReader(value, name, false);
 
         } else if (entity instanceof ExternalEntity) {
             pushReader((ExternalEntity) entity);
@@ -1838,23 +2192,29 @@ public class DTDParser {
 
         // internal entities
         if (externalId == null) {
-            char[] value;
             InternalEntity entity;
 
             doLexicalPE = false;        // "ab%bar;cd" -maybe-> "abcd"
             parseLiteral(true);
             doLexicalPE = true;
             if (doStore) {
-                value = new char[strTmp.length()];
-                if (value.length != 0) {
-                    strTmp.getChars(0, value.length, value, 0);
+                // short texts are often the same from one DTD to the
+                // next; the others go in the arena until the parse ends
+                if (strTmp.length() <= InternalEntity.MAX_SHARED) {
+                    entity = new InternalEntity(entityName, InternalEntity.share(strTmp));
+                } else {
+                    int offset = arena.add(strTmp);
+                    entity = new InternalEntity(entityName, arena.array(), offset, strTmp.length());
                 }
-                entity = new InternalEntity(entityName, value);
                 entity.isPE = (defns == params);
                 defns.put(entityName, entity);
-                if (defns == entities) {
-                    dtdHandler.internalGeneralEntityDecl(entityName,
-                            new String(value));
+                if (defns == entities && !ignoresEntityValues(dtdHandler)) {
+                    if (dtdHandler instanceof DTDEventListener2) {
+                        ((DTDEventListener2) dtdHandler).internalGeneralEntityDecl(entityName, strTmp);
+                    } else {
+                        dtdHandler.internalGeneralEntityDecl(entityName,
+                                strTmp.toString());
+                    }
                 }
             }
 
@@ -1873,6 +2233,9 @@ public class DTDParser {
             externalId.isPE = (defns == params);
             if (doStore) {
                 defns.put(entityName, externalId);
+                if (prefetcher != null && externalId.isPE) {
+                    prefetcher.fetch(externalId.publicId, externalId.systemId);
+                }
                 if (externalId.notation != null) {
                     dtdHandler.unparsedEntityDecl(entityName,
                             externalId.publicId, externalId.systemId,
@@ -1995,21 +2358,12 @@ public class DTDParser {
         while (!pe.isEOF()) {
             // pop internal PEs (and whitespace before/after)
             if (in.isEOF()) {
-                in = in.pop();
-                continue;
-            }
-            doLexicalPE = false;
-            if (maybeWhitespace()) {
-                continue;
-            }
-            if (maybePEReference()) {
+                popReader();
                 continue;
             }
-            doLexicalPE = true;
-            if (maybeMarkupDecl() || maybeConditionalSect()) {
-                continue;
+            if (!maybeExtSubsetDecl()) {
+                break;
             }
-            break;
         }
         // if (in != pe) throw new InternalError("who popped my PE?");
         if (!pe.isEOF()) {
@@ -2017,6 +2371,22 @@ public class DTDParser {
         }
     }
 
+    // one of [31] extSubsetDecl ::= ( markupdecl | conditionalSect
+    //        | PEReference | S )*
+    private boolean maybeExtSubsetDecl()
+            throws IOException, SAXException {
+
+        doLexicalPE = false;
+        if (maybeWhitespace()) {
+            return true;
+        }
+        if (maybePEReference()) {
+            return true;
+        }
+        doLexicalPE = true;
+        return maybeMarkupDecl() || maybeConditionalSect();
+    }
+
     private void readEncoding(boolean must)
             throws IOException, SAXException {
 
@@ -2142,7 +2512,7 @@ public class DTDParser {
 
         while (in.isEOF()) {
             if (in.isInternal() || (doLexicalPE && !in.isDocument())) {
-                in = in.pop();
+                popReader();
             } else {
                 fatal("P-064", new Object[]{in.getName()});
             }
@@ -2160,9 +2530,9 @@ public class DTDParser {
 
             // push a magic "entity" before and after the
             // real one, so ungetc() behaves uniformly
-            pushReader(" ".toCharArray(), null, false);
+            pushPadding();
             if (entity instanceof InternalEntity) {
-                pushReader(((InternalEntity) entity).buf, name, false);
+                pushReader((InternalEntity) entity, name, false);
             } else if (entity instanceof ExternalEntity) // PEs can't be unparsed!
             // XXX if this returns false ...
             {
@@ -2173,7 +2543,7 @@ public class DTDParser {
             } else {
                 throw new InternalError();
             }
-            pushReader(" ".toCharArray(), null, false);
+            pushPadding();
             return in.getc();
         }
         return c;
@@ -2212,7 +2582,7 @@ public class DTDParser {
             throws IOException, SAXException {
 
         while (in.isEOF() && !in.isDocument()) {
-            in = in.pop();
+            popReader();
         }
         if (!in.peekc(c)) {
             fatal("P-008", new Object[]{c,
@@ -2221,21 +2591,56 @@ public class DTDParser {
         }
     }
 
-    private void pushReader(char[] buf, String name, boolean isGeneral)
+    private void pushReader(InternalEntity value, String name, boolean isGeneral)
             throws SAXException {
 
         InputEntity r = InputEntity.getInputEntity(dtdHandler, locale);
-        r.init(buf, name, in, !isGeneral);
+        r.initInternal(value.buf, value.offset, value.length, name, in, !isGeneral);
+        in = r;
+    }
+
+    // Padding entities are never the ones a declaration or literal
+    // starts in (they hold a single space), so nothing compares them
+    // with the current entity once they're popped: they're kept for reuse.
+    private void pushPadding()
+            throws IOException {
+
+        InputEntity r = spare;
+        if (r == null) {
+            r = InputEntity.getPadding(dtdHandler, locale);
+        } else {
+            spare = r.pop();
+        }
+        r.initPadding(in);
         in = r;
     }
 
+    private void popReader()
+            throws IOException {
+
+        InputEntity r = in;
+        in = r.pop();
+        if (r.isPadding()) {
+            // chained through the entity's stack link while spare
+            r.initPadding(spare);
+            spare = r;
+        } else {
+            r.releaseBuffer();
+        }
+    }
+
     private void pushReader(ExternalEntity next)
             throws IOException, SAXException {
 
         InputEntity r = InputEntity.getInputEntity(dtdHandler, locale);
-        InputSource s;
+        InputSource s = null;
+        if (prefetcher != null) {
+            s = prefetcher.get(next.publicId, next.systemId);
+        }
         try {
-            s = next.getInputSource(resolver);
+            if (s == null) {
+                s = next.getInputSource(resolver);
+            }
         } catch (IOException e) {
             String msg =
                     "unable to open the external entity from :" + next.systemId;
@@ -2249,27 +2654,44 @@ public class DTDParser {
             throw e;
         }
 
+        if (recorder != null) {
+            s = recorder.external(next.publicId, next.systemId, s);
+        }
+        r.setBufferSize(bufferSize + 1);
+        r.setArena(arena);
         r.init(s, next.name, in, next.isPE);
         in = r;
     }
 
     public String getPublicId() {
 
+        if (replay != null) {
+            return replay.getPublicId();
+        }
         return (in == null) ? null : in.getPublicId();
     }
 
     public String getSystemId() {
 
+        if (replay != null) {
+            return replay.getSystemId();
+        }
         return (in == null) ? null : in.getSystemId();
     }
 
     public int getLineNumber() {
 
+        if (replay != null) {
+            return replay.getLineNumber();
+        }
         return (in == null) ? -1 : in.getLineNumber();
     }
 
     public int getColumnNumber() {
 
+        if (replay != null) {
+            return replay.getColumnNumber();
+        }
         return (in == null) ? -1 : in.getColumnNumber();
     }
 
@@ -2313,88 +2735,135 @@ public class DTDParser {
     // CPU usage for element/attribute/other names that are reused.
     //
     // Documents typically repeat names a lot, so we more or less
-    // intern all the strings within the document; since some strings
-    // are repeated in multiple documents (e.g. stylesheets) we go
-    // a bit further, and intern globally.
+    // intern all the strings within the document: the same name is
+    // always the same String, and looking one up allocates nothing.
+    // Strings are not interned globally; that costs a trip through the
+    // JVM's string table for each new name, and fills it up with the
+    // names of every DTD ever parsed.
+    //
+    // The table is open addressed, keeping each name's hash next to it,
+    // and grows to stay at most half full.
     //
     static class NameCache {
-        //
-        // Unless we auto-grow this, the default size should be a
-        // reasonable bit larger than needed for most XML files
-        // we've yet seen (and be prime).  If it's too small, the
-        // penalty is just excess cache collisions.
-        //
+        static final int INITIAL_CAPACITY = 1024;
 
-        NameCacheEntry[] hashtable = new NameCacheEntry[541];
+        String[] names = new String[INITIAL_CAPACITY];
+        int[] hashes = new int[INITIAL_CAPACITY];
+        int size;
 
         //
-        // Usually we just want to get the 'symbol' for these chars
+        // Hash of a name, as String.hashCode() computes it; callers
+        // scanning a name can compute it as they go, see hash(int, char)
         //
-        String lookup(char[] value, int len) {
+        static int hash(char[] value, int len) {
+            int h = 0;
+            for (int i = 0; i < len; i++) {
+                h = hash(h, value[i]);
+            }
+            return h;
+        }
 
-            return lookupEntry(value, len).name;
+        static int hash(int h, char c) {
+            return 31 * h + c;
+        }
+
+        String lookup(char[] value, int len) {
+            return lookup(value, 0, len, hash(value, len));
         }
 
         //
-        // Sometimes we need to scan the chars in the resulting
-        // string, so there's an accessor which exposes them.
-        // (Mostly for element end tags.)
+        // Returns the 'symbol' for a name got elsewhere, which becomes
+        // the symbol itself if there's none yet.  Names are compared
+        // with == in the parser's tables, so keys not scanned from the
+        // input (e.g. those of the predefined entities) go through here.
         //
-        NameCacheEntry lookupEntry(char[] value, int len) {
-
-            int index = 0;
-            NameCacheEntry entry;
+        String lookup(String name) {
+            int hash = name.hashCode();
+            String[] table = names;
+            int mask = table.length - 1;
+            int index = (hash ^ (hash >>> 16)) & mask;
+            String found;
+
+            while ((found = table[index]) != null) {
+                if (hashes[index] == hash && found.equals(name)) {
+                    return found;
+                }
+                index = (index + 1) & mask;
+            }
+            return add(index, name, hash);
+        }
 
-            // hashing to get index
-            for (int i = 0; i < len; i++) {
-                index = index * 31 + value[i];
+        private String add(int index, String name, int hash) {
+            names[index] = name;
+            hashes[index] = hash;
+            if (++size > names.length / 2) {
+                resize(names.length * 2);
             }
-            index &= 0x7fffffff;
-            index %= hashtable.length;
+            return name;
+        }
+
+        //
+        // Returns the 'symbol' for these chars, whose hash is given
+        //
+        String lookup(char[] value, int offset, int len, int hash) {
+            String[] table = names;
+            int mask = table.length - 1;
+            int index = (hash ^ (hash >>> 16)) & mask;
+            String name;
 
-            // return entry if one's there ...
-            for (entry = hashtable[index];
-                    entry != null;
-                    entry = entry.next) {
-                if (entry.matches(value, len)) {
-                    return entry;
+            // return the name if it's there ...
+            while ((name = table[index]) != null) {
+                if (hashes[index] == hash && matches(name, value, offset, len)) {
+                    return name;
                 }
+                index = (index + 1) & mask;
             }
 
-            // else create new one
-            entry = new NameCacheEntry();
-            entry.chars = new char[len];
-            System.arraycopy(value, 0, entry.chars, 0, len);
-            entry.name = new String(entry.chars);
-            //
-            // NOTE:  JDK 1.1 has a fixed size string intern table,
-            // with non-GC'd entries.  It can panic here; that's a
-            // JDK problem, use 1.2 or later with many identifiers.
-            //
-            entry.name = entry.name.intern();        // "global" intern
-            entry.next = hashtable[index];
-            hashtable[index] = entry;
-            return entry;
+            // else add it
+            return add(index, new String(value, offset, len), hash);
         }
-    }
-
-    static class NameCacheEntry {
 
-        String name;
-        char[] chars;
-        NameCacheEntry next;
-
-        boolean matches(char[] value, int len) {
-            if (chars == null || chars.length != len) {
+        private static boolean matches(String name, char[] value, int offset, int len) {
+            if (name.length() != len) {
                 return false;
             }
             for (int i = 0; i < len; i++) {
-                if (value[i] != chars[i]) {
+                if (name.charAt(i) != value[offset + i]) {
                     return false;
                 }
             }
             return true;
         }
+
+        private void resize(int capacity) {
+            String[] oldNames = names;
+            int[] oldHashes = hashes;
+            int mask = capacity - 1;
+
+            names = new String[capacity];
+            hashes = new int[capacity];
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    int hash = oldHashes[i];
+                    int index = (hash ^ (hash >>> 16)) & mask;
+                    while (names[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    names[index] = oldNames[i];
+                    hashes[index] = hash;
+                }
+            }
+        }
+
+        void clear() {
+            if (names.length > INITIAL_CAPACITY) {
+                names = new String[INITIAL_CAPACITY];
+                hashes = new int[INITIAL_CAPACITY];
+            } else {
+                Arrays.fill(names, null);
+            }
+            size = 0;
+        }
     }
 
     //
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool of {@link DTDParser} instances.
+ * <p>
+ * A parser is not thread-safe, but keeps its scratch buffers and name
+ * cache from one parse to the next.  Applications parsing DTDs from many
+ * threads can share a pool instead of creating a parser (and a resolver)
+ * per call: at most {@code maxSize} parsers are ever created, and threads
+ * wait for one to be returned once they are all in use.
+ * <p>
+ * The simplest use is {@link #parse(InputSource, DTDEventListener)};
+ * {@link #borrow()} and {@link #release(DTDParser)} give access to the
+ * parser itself:
+ * <pre>
+ *  DTDParser parser = pool.borrow();
+ *  try {
+ *      parser.setDtdHandler(handler);
+ *      parser.parse(input);
+ *  } finally {
+ *      pool.release(parser);
+ *  }
+ * </pre>
+ * Borrowed parsers are configured with the pool's entity resolver and
+ * {@link DTDCache}, if it has them; released parsers are
+ * {@link DTDParser#reset() reset}.
+ * <p>
+ * The pool counts hits (an idle parser was handed out), misses (a new
+ * parser had to be created) and waits (all parsers were in use).
+ */
+public final class DTDParserPool {
+
+    private final int maxSize;
+    private final EntityResolver resolver;
+    private final DTDCache cache;
+    private final BlockingQueue<DTDParser> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    // the parsers borrowed and not released yet (parsers don't
+    // override equals(), so they're told apart by identity)
+    private final Set<DTDParser> lent = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Constructs a pool of at most as many parsers as there are processors
+     * available, each using a default {@link Resolver}.
+     */
+    public DTDParserPool() {
+        this(Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * Constructs a pool.
+     *
+     * @param maxSize  the maximum number of parsers created by this pool
+     * @param resolver the entity resolver to set on borrowed parsers,
+     *                 shared by all of them so it must be thread-safe;
+     *                 or null to let each parser use a default one
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public DTDParserPool(int maxSize, EntityResolver resolver) {
+        this(maxSize, resolver, null);
+    }
+
+    /**
+     * Constructs a pool whose parsers share a cache of parsed DTDs.
+     *
+     * @param maxSize  the maximum number of parsers created by this pool
+     * @param resolver the entity resolver to set on borrowed parsers,
+     *                 shared by all of them so it must be thread-safe;
+     *                 or null to let each parser use a default one
+     * @param cache    the cache to set on borrowed parsers, or null
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public DTDParserPool(int maxSize, EntityResolver resolver, DTDCache cache) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.resolver = resolver;
+        this.cache = cache;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Takes a parser from the pool, creating one if none is idle and the
+     * pool is not full yet, or else waiting for one to be released.
+     *
+     * @return a parser, to be returned with {@link #release(DTDParser)}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public DTDParser borrow() throws InterruptedException {
+        DTDParser parser = idle.poll();
+        if (parser != null) {
+            hits.increment();
+        } else {
+            parser = create();
+            if (parser != null) {
+                misses.increment();
+            } else {
+                long start = System.nanoTime();
+                parser = idle.take();
+                waitNanos.add(System.nanoTime() - start);
+                waits.increment();
+                hits.increment();
+            }
+        }
+        if (resolver != null) {
+            parser.setEntityResolver(resolver);
+        }
+        parser.setCache(cache);
+        lent.add(parser);
+        return parser;
+    }
+
+    // creates a parser unless that would exceed maxSize
+    private DTDParser create() {
+        for (;;) {
+            int n = created.get();
+            if (n >= maxSize) {
+                return null;
+            }
+            if (created.compareAndSet(n, n + 1)) {
+                return new DTDParser();
+            }
+        }
+    }
+
+    /**
+     * Returns a parser obtained from {@link #borrow()} to the pool.
+     * It must not be used by the caller afterwards.
+     *
+     * @param parser the parser; null is ignored
+     * @throws IllegalStateException if the parser wasn't borrowed from
+     *                               this pool, or was released already
+     */
+    public void release(DTDParser parser) {
+        if (parser == null) {
+            return;
+        }
+        if (!lent.remove(parser)) {
+            throw new IllegalStateException("parser not borrowed from this pool, or released already");
+        }
+        parser.reset();
+        idle.offer(parser);
+    }
+
+    /**
+     * Parses a DTD with a pooled parser.
+     *
+     * @param in      the DTD to parse
+     * @param handler receives the parse events
+     * @throws IOException for errors, including {@link InterruptedIOException}
+     *                     when interrupted while waiting for a parser
+     * @throws SAXException for errors
+     */
+    public void parse(InputSource in, DTDEventListener handler)
+            throws IOException, SAXException {
+        DTDParser parser;
+        try {
+            parser = borrow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a parser");
+        }
+        try {
+            parser.setDtdHandler(handler);
+            parser.parse(in);
+        } finally {
+            release(parser);
+        }
+    }
+
+    /**
+     * Returns the maximum number of parsers this pool creates.
+     * @return the maximum number of parsers
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of parsers created so far.
+     * @return the number of parsers created
+     */
+    public int getSize() {
+        return created.get();
+    }
+
+    /**
+     * Returns the number of parsers currently idle in the pool.
+     * @return the number of idle parsers
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Returns how many times {@link #borrow()} handed out an existing parser.
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many times {@link #borrow()} had to create a parser.
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns how many times {@link #borrow()} had to wait for a parser.
+     * @return the wait count
+     */
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    /**
+     * Returns the total time spent in {@link #borrow()} waiting for a parser.
+     * @return the wait time in nanoseconds
+     */
+    public long getWaitTimeNanos() {
+        return waitNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "DTDParserPool[size=" + getSize() + "/" + maxSize
+                + ", idle=" + getIdleCount()
+                + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", waits=" + getWaitCount()
+                + ", waitNanos=" + getWaitTimeNanos() + "]";
+    }
+}
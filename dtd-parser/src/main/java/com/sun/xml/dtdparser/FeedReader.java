@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharConversionException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * The text of a DTD being fed to the parser in chunks of bytes.
+ *
+ * <P> The parser is recursive descent, so it can't stop in the middle
+ * of a declaration to wait for more input.  This decodes the bytes as
+ * they come, and scans the text just enough to tell where each of the
+ * top level declarations (or comments, PIs, PE references, conditional
+ * sections) ends; the parser is only handed complete ones.  Reading
+ * past them returns no characters, rather than blocking, and that
+ * looks like the end of the text to the parser, so it returns once
+ * it has parsed them.  Only the end of the input is a real EOF.
+ *
+ * <P> Whether a conditional section is an IGNORE or an INCLUDE one
+ * changes how it ends.  A keyword given by a parameter entity is
+ * looked up once the declarations before the section are parsed;
+ * should it be an external entity or not declared yet, the rest of
+ * the text is held back until the end of the input.
+ */
+final class FeedReader extends Reader {
+    // how far autodetection may read for an encoding declaration
+    private static final int DETECT_LIMIT = 4 + XmlReader.MAXPUSHBACK;
+
+    // scanner states
+    private static final int TOP = 0;       // between declarations
+    private static final int LT = 1;        // '<'
+    private static final int BANG = 2;      // '<!'
+    private static final int DASH = 3;      // '<!-'
+    private static final int COMMENT = 4;   // '<!--'
+    private static final int PI = 5;        // '<?'
+    private static final int DECL = 6;      // '<!NAME'
+    private static final int PEREF = 7;     // '%'
+    private static final int KEYWORD = 8;   // '<!['
+    private static final int IGNORE = 9;    // '<![IGNORE['
+    private static final int CLOSE = 10;    // ']' in an INCLUDE section
+
+    private final DTDParser parser;
+    private String encoding;
+    private CharsetDecoder decoder;
+
+    // bytes not decoded yet, between position and limit
+    private ByteBuffer pending = ByteBuffer.allocate(DETECT_LIMIT).flip();
+
+    // the decoded text: what's been read, what's complete,
+    // what's been scanned and what's been decoded
+    private char[] text = new char[1024];
+    private int head, ready, pos, count;
+    private boolean last;
+    private CharConversionException error;
+
+    private int state = TOP;
+    private int depth;          // open INCLUDE sections
+    private int ignoreDepth;    // open sections within an IGNORE one
+    private int keyword;        // start of a section keyword
+    private int run;            // '-' or ']' seen in a row
+    private char quote;         // in a literal
+    private char prev1, prev2;  // the last characters of an IGNORE section
+    private boolean held;       // the end can't be told
+
+    FeedReader(DTDParser parser, String encoding) {
+        this.parser = parser;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Decodes the next bytes of the text, parsing the declarations
+     * completed by them; at the end of the input, all the text is
+     * passed on, and it's up to the caller to parse it.
+     */
+    void write(ByteBuffer bytes, boolean end)
+            throws IOException, SAXException {
+
+        ByteBuffer src = bytes;
+        if (decoder == null || pending.hasRemaining()) {
+            keep(bytes);
+            src = pending;
+        }
+        if (decoder == null) {
+            if (!end && encoding == null && !detectable()) {
+                return;
+            }
+            if (encoding == null) {
+                encoding = detect();
+            }
+            decoder = XmlReader.charset(encoding).newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+
+        decode(src, end);
+        if (src != pending) {
+            keep(src);
+        }
+
+        if (end || error != null) {
+            // the rest goes as it is, leaving the parser
+            // to report any declaration cut short
+            last = true;
+            ready = count;
+        } else {
+            scan();
+        }
+        if (!end && (ready > head || error != null)) {
+            parser.parseFed();
+        }
+    }
+
+    // the name of the encoding, once known
+    String getEncoding() {
+        return decoder != null ? encoding : null;
+    }
+
+    // appends what's left of src to the pending bytes
+    private void keep(ByteBuffer src) {
+        if (!src.hasRemaining()) {
+            return;
+        }
+        if (pending.capacity() - pending.remaining() < src.remaining()) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(
+                    pending.remaining() + src.remaining(), 2 * pending.capacity()));
+            bigger.put(pending);
+            pending = bigger;
+        } else {
+            pending.compact();
+        }
+        pending.put(src);
+        pending.flip();
+    }
+
+    // true once the first bytes settle the encoding, as
+    // XmlReader would detect it: see there
+    private boolean detectable() {
+        int n = pending.remaining();
+        if (n < 4) {
+            return false;
+        }
+        if (n >= DETECT_LIMIT) {
+            return true;
+        }
+
+        // "<?" in ASCII or EBCDIC needs the whole declaration,
+        // up to "?>" in the same
+        int at = pending.position();
+        int question;
+        int gt;
+        if (pending.get(at) == 0x3c && pending.get(at + 1) == 0x3f) {
+            question = 0x3f;
+            gt = 0x3e;
+        } else if (pending.get(at) == 0x4c && pending.get(at + 1) == 0x6f) {
+            question = 0x6f;
+            gt = 0x6e;
+        } else {
+            return true;
+        }
+        for (int i = at + 2; i + 1 < pending.limit(); i++) {
+            if (pending.get(i) == question && pending.get(i + 1) == gt) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String detect() throws IOException {
+        byte[] start = new byte[Math.min(pending.remaining(), DETECT_LIMIT)];
+        pending.duplicate().get(start);
+        try (XmlReader r = (XmlReader) XmlReader.createReader(new ByteArrayInputStream(start))) {
+            return r.getEncoding();
+        }
+    }
+
+    private void decode(ByteBuffer src, boolean end) {
+        CoderResult result;
+        do {
+            reserve(Math.max(src.remaining(), 64));
+            CharBuffer out = CharBuffer.wrap(text, count, text.length - count);
+            result = decoder.decode(src, out, end);
+            if (result.isUnderflow() && end) {
+                result = decoder.flush(out);
+            }
+            count = out.position();
+        } while (result.isOverflow());
+
+        if (result.isError()) {
+            error = new CharConversionException("Illegal "
+                    + decoder.charset().name() + " input, " + result);
+        }
+    }
+
+    // makes room for at least n more characters, dropping those read
+    private void reserve(int n) {
+        if (head > 0) {
+            System.arraycopy(text, head, text, 0, count - head);
+            ready -= head;
+            pos -= head;
+            keyword -= head;
+            count -= head;
+            head = 0;
+        }
+        if (text.length - count < n) {
+            text = Arrays.copyOf(text, Math.max(count + n, 2 * text.length));
+        }
+    }
+
+    /**
+     * Reads what's complete of the text; zero characters if that's all
+     * been read, until the end of the input.
+     */
+    @Override
+    public int read(char[] buf, int off, int len) throws IOException {
+        int n = Math.min(len, ready - head);
+        if (n > 0) {
+            System.arraycopy(text, head, buf, off, n);
+            head += n;
+            return n;
+        }
+        if (error != null) {
+            throw error;
+        }
+        return last ? -1 : 0;
+    }
+
+    @Override
+    public void close() {
+        head = ready;
+    }
+
+    //
+    // Finds where the declarations end, picking up where the last
+    // chunk left off.  This doesn't check syntax; anything odd is
+    // passed on as soon as possible, for the parser to report.
+    //
+    private void scan() throws IOException, SAXException {
+        while (pos < count && !held) {
+            char c = text[pos++];
+
+            switch (state) {
+            case TOP:
+                if (c == '<') {
+                    state = LT;
+                } else if (c == '%') {
+                    state = PEREF;
+                } else if (c == ']' && depth > 0) {
+                    state = CLOSE;
+                    run = 1;
+                } else if (!XmlChars.isSpace(c)) {
+                    end();
+                }
+                break;
+
+            case LT:
+                if (c == '!') {
+                    state = BANG;
+                } else if (c == '?') {
+                    state = PI;
+                    prev1 = 0;
+                } else {
+                    end();
+                }
+                break;
+
+            case BANG:
+                if (c == '-') {
+                    state = DASH;
+                } else if (c == '[') {
+                    state = KEYWORD;
+                    keyword = pos;
+                } else {
+                    state = DECL;
+                    quote = 0;
+                    pos--;
+                }
+                break;
+
+            case DASH:
+                if (c == '-') {
+                    state = COMMENT;
+                    run = 0;
+                } else {
+                    state = DECL;
+                    quote = 0;
+                    pos--;
+                }
+                break;
+
+            case COMMENT:
+                if (c == '>' && run >= 2) {
+                    end();
+                }
+                run = c == '-' ? run + 1 : 0;
+                break;
+
+            case PI:
+                if (c == '>' && prev1 == '?') {
+                    end();
+                }
+                prev1 = c;
+                break;
+
+            case DECL:
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    end();
+                }
+                break;
+
+            case PEREF:
+                if (!XmlChars.isNameChar(c)) {
+                    end();
+                }
+                break;
+
+            case KEYWORD:
+                if (c == '[') {
+                    startSection(new String(text, keyword, pos - 1 - keyword).trim());
+                }
+                break;
+
+            case IGNORE:
+                // [64] ignoreSectContents, as the parser skips it
+                if (c == '[' && prev1 == '!' && prev2 == '<') {
+                    ignoreDepth++;
+                } else if (c == '>' && prev1 == ']' && prev2 == ']') {
+                    if (--ignoreDepth == 0) {
+                        end();
+                        break;
+                    }
+                }
+                prev2 = prev1;
+                prev1 = c;
+                break;
+
+            case CLOSE:
+                if (c == ']' && run == 1) {
+                    run = 2;
+                } else if (c == '>' && run == 2) {
+                    depth--;
+                    end();
+                } else {
+                    state = TOP;
+                }
+                break;
+
+            default:
+                throw new InternalError();
+            }
+        }
+    }
+
+    // a declaration (at least one inside an INCLUDE section) ended
+    private void end() {
+        state = TOP;
+        if (depth == 0) {
+            ready = pos;
+        }
+    }
+
+    private void startSection(String name)
+            throws IOException, SAXException {
+
+        if (name.length() > 2 && name.charAt(0) == '%'
+                && name.charAt(name.length() - 1) == ';') {
+            // parse what's before the section, to know the PE; in an
+            // enclosing section, it's enough to have been declared
+            // before, since the first declaration of an entity binds
+            if (depth == 0 && ready > head) {
+                parser.parseFed();
+            }
+            name = parser.conditionalKeyword(name.substring(1, name.length() - 1).trim());
+        }
+
+        if ("INCLUDE".equals(name)) {
+            depth++;
+            state = TOP;
+        } else if ("IGNORE".equals(name)) {
+            ignoreDepth = 1;
+            prev1 = prev2 = 0;
+            state = IGNORE;
+        } else {
+            held = true;
+        }
+    }
+}
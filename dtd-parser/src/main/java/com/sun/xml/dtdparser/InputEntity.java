@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 1998, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -41,6 +42,8 @@ import java.util.Locale;
  */
 public class InputEntity {
     private int start, finish;
+    // where the text of an internal entity starts in buf
+    private int begin;
     private char[] buf;
     private int lineNumber = 1;
     private boolean returnedFirstHalf = false;
@@ -61,9 +64,12 @@ public class InputEntity {
     private DTDEventListener errHandler;
     private Locale locale;
 
-    private StringBuffer rememberedText;
+    private TextBuffer rememberedText;
     private int startRemember;
 
+    // holds the start of a name crossing a buffer refill
+    private char[] nameTmp;
+
     // record if this is a PE, so endParsedEntity won't be called
     private boolean isPE;
 
@@ -71,10 +77,25 @@ public class InputEntity {
     // we minimize reads.  We also add a byte to compensate for the
     // "ungetc" byte we keep, so that our downstream reads are as
     // nicely sized as we can make them.
-    private static final int BUFSIZ = 8 * 1024 + 1;
+    static final int BUFSIZ = 8 * 1024 + 1;
+
+    // buffers of large entities double on each refill up to this size,
+    // unless configured bigger to start with
+    static final int MAX_BUFSIZ = 64 * 1024 + 1;
+
+    // entities known to be at most this long are read in one go,
+    // into a buffer sized to fit
+    static final int MAX_WHOLE = 1024 * 1024;
+
+    private int bufsiz = BUFSIZ;
+    // where the buffer of an external entity comes from, if not new
+    private CharArena arena;
 
     private static final char[] newline = {'\n'};
 
+    // the one space pushed before and after each PE expansion
+    private static final char[] SPACE = {' '};
+
     public static InputEntity getInputEntity(DTDEventListener h, Locale l) {
         InputEntity retval = new InputEntity();
         retval.errHandler = h;
@@ -82,9 +103,47 @@ public class InputEntity {
         return retval;
     }
 
+    //
+    // returns an entity holding just a space, set up by initPadding();
+    // nothing is ever left of it once popped, so the parser reuses it
+    //
+    static InputEntity getPadding(DTDEventListener h, Locale l) {
+        InputEntity retval = getInputEntity(h, l);
+        retval.buf = SPACE;
+        retval.isPE = true;
+        return retval;
+    }
+
     private InputEntity() {
     }
 
+    //
+    // sets the size of the buffer (in characters, plus the one kept
+    // for pushback) to read external entities with
+    //
+    void setBufferSize(int size) {
+        bufsiz = size;
+    }
+
+    //
+    // sets the arena to take the buffer of an external entity from,
+    // and to give it back to once the entity is popped
+    //
+    void setArena(CharArena arena) {
+        this.arena = arena;
+    }
+
+    //
+    // gives the buffer of an external entity back to its arena, for
+    // others to read into: nothing may be read from this one after that
+    //
+    void releaseBuffer() {
+        if (arena != null && reader != null && buf != null) {
+            arena.release(buf);
+            buf = null;
+        }
+    }
+
     //
     // predicate:  return true iff this is an internal entity reader,
     // and so may safely be "popped" as needed.  external entities have
@@ -134,7 +193,7 @@ public class InputEntity {
 
             if (bytes == null) {
                 if (Boolean.getBoolean("enableExternalEntityProcessing")) {
-                    reader = XmlReader.createReader(new URL(in.getSystemId()).openStream());
+                    reader = XmlReader.createReader(new URL(in.getSystemId()));
                 } else {
                     fatal("P-082", new Object[] {in.getSystemId()});
                 }
@@ -145,7 +204,13 @@ public class InputEntity {
             }
         }
         next = stack;
-        buf = new char[BUFSIZ];
+        int length = reader instanceof XmlReader ? ((XmlReader) reader).sizeHint() : -1;
+        // small enough: one read, and never a refill
+        int size = length >= 0 && length <= MAX_WHOLE ? length + 1 : bufsiz;
+        buf = arena != null ? arena.buffer(size) : null;
+        if (buf == null) {
+            buf = new char[size];
+        }
         this.name = name;
         checkRecursion(stack);
     }
@@ -156,14 +221,42 @@ public class InputEntity {
     public void init(char[] b, String name, InputEntity stack, boolean isPE)
             throws SAXException {
 
+        initInternal(Arrays.copyOf(b, b.length), 0, b.length, name, stack, isPE);
+    }
+
+    //
+    // as above, for the parser's own replacement text: the array is
+    // never written to, so it's shared rather than copied, and the
+    // text may be a slice of it
+    //
+    void initInternal(char[] b, int offset, int length, String name, InputEntity stack, boolean isPE)
+            throws SAXException {
+
         next = stack;
-        buf = Arrays.copyOf(b, b.length);
-        finish = b.length;
+        buf = b;
+        begin = offset;
+        start = offset;
+        finish = offset + length;
         this.name = name;
         this.isPE = isPE;
         checkRecursion(stack);
     }
 
+    //
+    // use this for a padding entity, new or popped
+    //
+    void initPadding(InputEntity stack) {
+        next = stack;
+        start = 0;
+        finish = SPACE.length;
+        isClosed = false;
+        rememberedText = null;
+    }
+
+    boolean isPadding() {
+        return buf == SPACE;
+    }
+
     private void checkRecursion(InputEntity stack)
             throws SAXException {
 
@@ -214,6 +307,9 @@ public class InputEntity {
         if (reader instanceof XmlReader) {
             return ((XmlReader) reader).getEncoding();
         }
+        if (reader instanceof FeedReader) {
+            return ((FeedReader) reader).getEncoding();
+        }
 
         // XXX prefer a java2std() call to normalize names...
 
@@ -247,6 +343,67 @@ public class InputEntity {
         return 0;
     }
 
+    //
+    // Scans the rest of a name whose first character, c, was just read,
+    // and returns its symbol from the cache.  The name is looked up right
+    // where it is in the buffer; only one crossing a refill gets copied.
+    //
+    String getName(char c, DTDParser.NameCache cache)
+            throws IOException, SAXException {
+
+        int hash = DTDParser.NameCache.hash(0, c);
+        int spilled = 0;
+        int begin;
+
+        if (start > 0 && buf[start - 1] == c) {
+            begin = start - 1;
+        } else {
+            spilled = spill(new char[]{c}, 0, 1, 0);
+            begin = start;
+        }
+
+        for (;;) {
+            char[] b = buf;
+            int i = start;
+            int end = finish;
+            char ch;
+
+            while (i < end && XmlChars.isNameChar(ch = b[i])) {
+                hash = DTDParser.NameCache.hash(hash, ch);
+                i++;
+            }
+            start = i;
+            if (i < end || reader == null || isClosed) {
+                break;
+            }
+
+            // the name may go on past the buffer
+            spilled = spill(b, begin, i - begin, spilled);
+            fillbuf();
+            begin = start;
+            if (start >= finish) {
+                break;
+            }
+        }
+
+        if (spilled == 0) {
+            return cache.lookup(buf, begin, start - begin, hash);
+        }
+        spilled = spill(buf, begin, start - begin, spilled);
+        return cache.lookup(nameTmp, 0, spilled, hash);
+    }
+
+    // appends chars to nameTmp, holding len of them so far
+    private int spill(char[] chars, int offset, int count, int len) {
+        if (nameTmp == null) {
+            nameTmp = new char[Math.max(len + count, 32)];
+        } else if (len + count > nameTmp.length) {
+            nameTmp = Arrays.copyOf(nameTmp, Math.max(len + count, 2 * nameTmp.length));
+        }
+        System.arraycopy(chars, offset, nameTmp, len, count);
+        return len + count;
+    }
+
     /**
      * gets the next Java character -- might be part of an XML
      * text character represented by a surrogate pair, or be
@@ -316,6 +473,96 @@ public class InputEntity {
     }
 
 
+    //
+    // Skips the contents of an IGNORE conditional section, nested ones
+    // included, through the "]]>" closing it; like getc(), it won't go
+    // past the end of this entity.  Only the characters needing a closer
+    // look leave the scanning loop: section delimiters, line ends,
+    // surrogates, and the ones that aren't legal at all.
+    //
+    void skipIgnored() throws IOException, SAXException {
+
+        int depth = 1;
+        for (;;) {
+            char[] b = buf;
+            int i = start;
+            int end = finish;
+            char c = 0;
+
+            while (i < end) {
+                c = b[i];
+                if ((c > 0x005D && c <= 0xD7FF)    // ']' < c
+                        || (c < 0x003C && c >= 0x0020)    // c < '<'
+                        || (c > 0x003C && c < 0x005D)    // '<' < c < ']'
+                        || c == 0x0009
+                        || (c >= 0xE000 && c <= 0xFFFD)) {
+                    i++;
+                    continue;
+                }
+                break;
+            }
+            start = i;
+
+            if (i >= end) {
+                fillbuf();
+                if (start >= finish) {
+                    throw new EndOfInputException();
+                }
+                continue;
+            }
+
+            if (c == '<' || c == ']') {
+                // "<![" opens a section, "]]>" closes one
+                if (finish - start < 3) {
+                    fillbuf();
+                }
+                if (finish - start >= 3 && (c == '<'
+                        ? buf[start + 1] == '!' && buf[start + 2] == '['
+                        : buf[start + 1] == ']' && buf[start + 2] == '>')) {
+                    start += 3;
+                    depth += (c == '<') ? 1 : -1;
+                    if (depth == 0) {
+                        return;
+                    }
+                } else {
+                    start++;
+                }
+
+            } else if (c == '\n' || c == '\r') {
+                start++;
+                if (!isInternal()) {
+                    // CRLF is one line end
+                    if (c == '\r') {
+                        if (start >= finish) {
+                            fillbuf();
+                        }
+                        if (start < finish && buf[start] == '\n') {
+                            start++;
+                        }
+                    }
+                    lineNumber++;
+                }
+
+            } else if (c >= 0xd800 && c < 0xdc00) {
+                start++;
+                if (start >= finish) {
+                    fillbuf();
+                }
+                if (start < finish) {
+                    c = buf[start];
+                    if (c < 0xdc00 || c > 0xdfff) {
+                        fatal("P-070", new Object[]{Integer.toHexString(c)});
+                    }
+                    start++;
+                }
+
+            } else {
+                fatal("P-071", new Object[]{Integer.toHexString(c)});
+            }
+        }
+    }
+
+
     /**
      * lookahead one character
      * @param c character to lookahead
@@ -345,7 +592,7 @@ public class InputEntity {
      */
     public void ungetc() {
 
-        if (start == 0) {
+        if (start == begin) {
             throw new InternalError("ungetc");
         }
         start--;
@@ -883,7 +1130,12 @@ public class InputEntity {
                 fatal("P-077", new Object[]{buf.length});
             }
 
+            // a fed DTD may have nothing more to read just yet
+            int available = finish - start;
             fillbuf();
+            if (finish - start == available) {
+                return false;
+            }
             return peek(next, chars);
         }
 
@@ -1010,7 +1262,7 @@ public class InputEntity {
         // if remembering DTD text, copy!
         if (startRemember != 0) {
             if (rememberedText == null) {
-                rememberedText = new StringBuffer(buf.length);
+                rememberedText = new TextBuffer(buf.length);
             }
             rememberedText.append(buf, startRemember,
                     start - startRemember);
@@ -1025,7 +1277,18 @@ public class InputEntity {
         }
         len = finish - start;
 
-        System.arraycopy(buf, start, buf, 0, len);
+        // a large entity: the last read filled the buffer, so
+        // grow it to make the next reads fewer
+        char[] dst = buf;
+        if (finish == buf.length && buf.length < MAX_BUFSIZ) {
+            dst = new char[Math.min(2 * buf.length - 1, MAX_BUFSIZ)];
+        }
+
+        // only the unread tail is copied, usually a character or two
+        if (len > 0 && (start > 0 || dst != buf)) {
+            System.arraycopy(buf, start, dst, 0, len);
+        }
+        buf = dst;
         start = 0;
         finish = len;
 
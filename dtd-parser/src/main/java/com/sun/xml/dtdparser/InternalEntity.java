@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 1998, 2022 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -10,12 +11,66 @@
 
 package com.sun.xml.dtdparser;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 final class InternalEntity extends EntityDecl {
     InternalEntity(String name, char[] value) {
+        this(name, value, 0, value.length);
+    }
+
+    InternalEntity(String name, char[] buf, int offset, int length) {
         this.name = name;
-        this.buf = value;
+        this.buf = buf;
+        this.offset = offset;
+        this.length = length;
     }
 
-    char[] buf;
+    // the replacement text, in buf from offset on; never changed,
+    // since entities are read from it in place, so it may be shared
+    // (or be a slice of the parser's CharArena)
+    final char[] buf;
+    final int offset;
+    final int length;
+
+    // the predefined entities, shared by all parsers
+    static final InternalEntity[] BUILTINS = {
+        new InternalEntity("amp", "&#38;".toCharArray()),
+        new InternalEntity("lt", "&#60;".toCharArray()),
+        new InternalEntity("gt", ">".toCharArray()),
+        new InternalEntity("quot", "\"".toCharArray()),
+        new InternalEntity("apos", "'".toCharArray()),
+    };
+
+    //
+    // Replacement texts seen lately, shared by all parsers so that DTDs
+    // declaring the same entities (e.g. the ISO character entity sets)
+    // don't get copies of the same values parse after parse.  It's a
+    // cache indexed by hash, each slot holding the last text that went
+    // there; longer texts are seldom the same, and aren't kept.
+    //
+    static final int MAX_SHARED = 256;
+    private static final int SLOTS = 4096;
+    private static final AtomicReferenceArray<char[]> TEXTS = new AtomicReferenceArray<>(SLOTS);
+
+    // returns the text, as an array which may be shared
+    static char[] share(TextBuffer text) {
+        int length = text.length();
+        if (length > MAX_SHARED) {
+            return text.toCharArray();
+        }
+        char[] chars = text.array();
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + chars[i];
+        }
+        int slot = (h ^ (h >>> 16)) & (SLOTS - 1);
+
+        char[] shared = TEXTS.get(slot);
+        if (shared == null || !Arrays.equals(shared, 0, shared.length, chars, 0, length)) {
+            shared = text.toCharArray();
+            TEXTS.lazySet(slot, shared);
+        }
+        return shared;
+    }
 }
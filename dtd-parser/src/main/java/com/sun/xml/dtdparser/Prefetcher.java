@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the external parameter entities of a DTD ahead of the parser,
+ * concurrently, so that it finds them in memory when it gets to them.
+ *
+ * <P> Each entity read, and the document itself, is scanned for
+ * external parameter entity declarations, and those are read next.
+ * That's a lexical scan: it can't tell what's in an IGNORE section,
+ * so an entity that's never used may be read too.  Anything that goes
+ * wrong here is left for the parser to run into, by reading the entity
+ * itself as if there were no prefetching.
+ */
+final class Prefetcher {
+    // most entities read ahead for one parse, in case of a runaway DTD
+    static final int MAX_FETCHES = 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(Prefetcher.class.getName());
+
+    // <!ENTITY % name SYSTEM "uri"> or PUBLIC "id" "uri"
+    private static final Pattern DECLARATION = Pattern.compile(
+            "<!ENTITY\\s+%\\s+[^\\s%;]+\\s+(?:SYSTEM|PUBLIC\\s+(\"[^\"]*\"|'[^']*'))\\s*(\"[^\"]*\"|'[^']*')");
+
+    private final Executor executor;
+    private final EntityResolver resolver;
+    private final Map<String, Fetch> fetches = new ConcurrentHashMap<>();
+    private volatile boolean cancelled;
+
+    Prefetcher(Executor executor, EntityResolver resolver) {
+        this.executor = executor;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Reads the document in, to scan it for entities to read ahead.
+     * Returns a source of the content read, or the original one if
+     * it's neither a character nor a byte stream.
+     */
+    InputSource preload(InputSource in) throws IOException {
+        DTDCache.Content content = DTDCache.Content.read(in);
+        if (content == null) {
+            return in;
+        }
+        InputSource copy = content.toInputSource(in);
+        scan(content.toInputSource(in));
+        return copy;
+    }
+
+    /**
+     * Starts reading an external parameter entity, unless that's
+     * been done already.
+     */
+    void fetch(String publicId, String systemId) {
+        if (cancelled || systemId == null || fetches.size() >= MAX_FETCHES) {
+            return;
+        }
+        Fetch fetch = new Fetch(publicId, systemId);
+        if (fetches.putIfAbsent(key(publicId, systemId), fetch) == null) {
+            try {
+                executor.execute(fetch);
+            } catch (RejectedExecutionException e) {
+                // the parser will run it when it's needed
+            }
+        }
+    }
+
+    /**
+     * Returns the content of an entity, waiting for it to be read (or
+     * reading it now, if no thread got to it yet); or null if it wasn't
+     * read ahead, or that failed.
+     */
+    InputSource get(String publicId, String systemId) {
+        Fetch fetch = fetches.get(key(publicId, systemId));
+        if (fetch == null) {
+            return null;
+        }
+        fetch.run();
+        InputSource in = fetch.result.join();
+        return in == null ? null : fetch.content.toInputSource(in);
+    }
+
+    /**
+     * Drops whatever hasn't been read yet; called at the end of the parse.
+     */
+    void cancel() {
+        cancelled = true;
+        fetches.clear();
+    }
+
+    private static String key(String publicId, String systemId) {
+        return publicId == null ? systemId : publicId + '\n' + systemId;
+    }
+
+    // finds entity declarations in the text of an entity, and reads them
+    private void scan(InputSource in) throws IOException {
+        String base = in.getSystemId();
+        CharSequence text;
+        try (Reader r = in.getCharacterStream() != null ? in.getCharacterStream()
+                : XmlReader.createReader(in.getByteStream(), in.getEncoding())) {
+            StringBuilder sb = new StringBuilder();
+            char[] buf = new char[InputEntity.BUFSIZ];
+            for (int len; (len = r.read(buf, 0, buf.length)) != -1; ) {
+                sb.append(buf, 0, len);
+            }
+            text = sb;
+        }
+
+        Matcher m = DECLARATION.matcher(text);
+        while (m.find() && !cancelled) {
+            String publicId = m.group(1);
+            String systemId = resolve(base, unquote(m.group(2)));
+            if (publicId != null) {
+                // as normalized by the parser
+                publicId = unquote(publicId).trim().replaceAll("[ \r\n]+", " ");
+            }
+            if (systemId != null) {
+                fetch(publicId, systemId);
+            }
+        }
+    }
+
+    private static String unquote(String literal) {
+        return literal.substring(1, literal.length() - 1);
+    }
+
+    // resolves a system ID like the parser does; null for those
+    // it wouldn't accept, or that use parameter entities
+    private static String resolve(String base, String uri) {
+        if (uri.indexOf('%') != -1 || uri.indexOf('#') != -1) {
+            return null;
+        }
+        int colon = uri.indexOf(':');
+        if (colon != -1 && uri.indexOf('/') > colon) {
+            return uri;
+        }
+        if (base == null || uri.startsWith("/")) {
+            return null;
+        }
+        if (uri.isEmpty()) {
+            uri = ".";
+        }
+        return base.substring(0, base.lastIndexOf('/') + 1) + uri;
+    }
+
+    //
+    // Reading one entity; runs once, on whichever thread gets to
+    // it first, so the parser never waits on a task that's queued
+    // behind busy threads (or on the thread running the parser).
+    //
+    private final class Fetch implements Runnable {
+        private final String publicId;
+        private final String systemId;
+        private final AtomicBoolean started = new AtomicBoolean();
+        final CompletableFuture<InputSource> result = new CompletableFuture<>();
+        DTDCache.Content content;
+
+        Fetch(String publicId, String systemId) {
+            this.publicId = publicId;
+            this.systemId = systemId;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            InputSource in = null;
+            try {
+                if (!cancelled) {
+                    ExternalEntity entity = new ExternalEntity(null);
+                    entity.publicId = publicId;
+                    entity.systemId = systemId;
+                    InputSource source = entity.getInputSource(resolver);
+                    content = DTDCache.Content.read(source);
+                    if (content != null) {
+                        in = source;
+                        scan(content.toInputSource(source));
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Could not prefetch " + systemId, e);
+            } finally {
+                result.complete(in);
+            }
+        }
+    }
+}
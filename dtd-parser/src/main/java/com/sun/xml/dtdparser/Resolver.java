@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 1998, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -14,7 +15,6 @@ import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -89,6 +89,9 @@ public class Resolver implements EntityResolver {
     private Map<String, String> id2resource;
     private Map<String, ClassLoader> id2loader;
 
+    // consulted after the entries registered one by one
+    private Catalog catalog;
+
     //
     // table of MIME content types (fewer attributes!) known
     // to be mostly "OK" to use with XML MIME entities.  the
@@ -236,6 +239,14 @@ public class Resolver implements EntityResolver {
     public static InputSource createInputSource(URL uri, boolean checkType)
             throws IOException {
 
+        // files carry no MIME type or charset to check
+        File file = XmlReader.toFile(uri);
+        if (file != null) {
+            InputSource retval = new InputSource(XmlReader.createReader(file));
+            retval.setSystemId(uri.toString());
+            return retval;
+        }
+
         URLConnection conn = uri.openConnection();
         InputSource retval;
 
@@ -260,7 +271,7 @@ public class Resolver implements EntityResolver {
      */
     public static InputSource createInputSource(File file)
             throws IOException {
-        InputSource retval = new InputSource(XmlReader.createReader(new FileInputStream(file)));
+        InputSource retval = new InputSource(XmlReader.createReader(file));
         retval.setSystemId(file.toURI().toURL().toString());
         return retval;
     }
@@ -272,8 +283,9 @@ public class Resolver implements EntityResolver {
      * be mapped to a preferred form of the entity, the URI is used.  To
      * resolve the entity, first a local catalog mapping names to URIs is
      * consulted.  If no mapping is found there, a catalog mapping names
-     * to java resources is consulted.  Finally, if neither mapping found
-     * a copy of the entity, the specified URI is used.
+     * to java resources is consulted, then the {@link Catalog} set on
+     * this resolver, if any.  Finally, if no mapping found a copy of the
+     * entity, the specified URI is used.
      *
      * <P> When a URI is used, <a href="#createInputSource">
      * createInputSource</a> is used to correctly deduce the character
@@ -303,12 +315,22 @@ public class Resolver implements EntityResolver {
             URL url;
             URLConnection conn;
 
+            if (mappedURI == null && catalog != null)
+                mappedURI = catalog.resolve(name, uri);
             if (mappedURI != null)
                 uri = mappedURI;
             else if (uri == null)
                 return null;
 
             url = new URL(uri);
+            File file = XmlReader.toFile(url);
+            if (file != null) {
+                // files carry no MIME type or charset to check
+                retval = new InputSource(XmlReader.createReader(file));
+                retval.setSystemId(url.toString());
+                retval.setPublicId(name);
+                return retval;
+            }
             conn = url.openConnection();
             uri = conn.getURL().toString();
             // System.out.println ("++ URI: " + url);
@@ -353,6 +375,26 @@ public class Resolver implements EntityResolver {
     }
 
 
+    /**
+     * Returns the catalog consulted by this resolver.
+     * @return the catalog, or null if there is none
+     */
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Sets a catalog to consult for entities which have no entry
+     * registered with {@code registerCatalogEntry}, such as a large
+     * OASIS XML catalog loaded once and shared by many resolvers.
+     * Catalogs can be used from any number of threads without locking.
+     * @param catalog the catalog, or null for none
+     */
+    public void setCatalog(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+
     // maps the public ID to an alternate URI, if one is registered
     private String name2uri(String publicId) {
         if (publicId == null || id2uri == null)
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package com.sun.xml.dtdparser;
+
+import java.util.Arrays;
+
+/**
+ * A growable run of characters, used by the parser as scratch space for
+ * literals, comments, PIs and the like.  Unlike a {@code StringBuffer},
+ * it's not synchronized, and its array can be read in place: it's meant
+ * to be owned by one parser and cleared, not reallocated, between uses.
+ */
+final class TextBuffer implements CharSequence {
+    private char[] buf;
+    private int length;
+
+    TextBuffer() {
+        this(256);
+    }
+
+    TextBuffer(int capacity) {
+        buf = new char[capacity];
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    int capacity() {
+        return buf.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return buf[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new String(buf, start, end - start);
+    }
+
+    // the characters, valid up to length()
+    char[] array() {
+        return buf;
+    }
+
+    // drops the characters past the given length
+    void setLength(int length) {
+        if (length < 0 || length > this.length) {
+            throw new IndexOutOfBoundsException("length: " + length + ", was: " + this.length);
+        }
+        this.length = length;
+    }
+
+    void clear() {
+        length = 0;
+    }
+
+    TextBuffer append(char c) {
+        if (length == buf.length) {
+            grow(1);
+        }
+        buf[length++] = c;
+        return this;
+    }
+
+    TextBuffer append(String s) {
+        int n = s.length();
+        if (length + n > buf.length) {
+            grow(n);
+        }
+        s.getChars(0, n, buf, length);
+        length += n;
+        return this;
+    }
+
+    TextBuffer append(char[] chars, int offset, int count) {
+        if (length + count > buf.length) {
+            grow(count);
+        }
+        System.arraycopy(chars, offset, buf, length, count);
+        length += count;
+        return this;
+    }
+
+    private void grow(int more) {
+        buf = Arrays.copyOf(buf, Math.max(length + more, 2 * buf.length));
+    }
+
+    char[] toCharArray() {
+        return Arrays.copyOf(buf, length);
+    }
+
+    /**
+     * Normalizes the characters as an attribute value other than CDATA
+     * (3.3.3 of the XML spec): leading and trailing spaces are dropped,
+     * and other runs of spaces replaced by a single one, in place.
+     */
+    void normalizeSpace() {
+        int from = 0;
+        int to = length;
+        // as String.trim()
+        while (from < to && buf[from] <= ' ') {
+            from++;
+        }
+        while (to > from && buf[to - 1] <= ' ') {
+            to--;
+        }
+
+        int out = 0;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (!XmlChars.isSpace(c)) {
+                buf[out++] = c;
+                continue;
+            }
+            buf[out++] = ' ';
+            while (i + 1 < to && XmlChars.isSpace(buf[i + 1])) {
+                i++;
+            }
+        }
+        length = out;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, length);
+    }
+}
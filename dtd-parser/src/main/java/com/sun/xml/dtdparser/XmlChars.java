@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 1998, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -10,6 +11,8 @@
 
 package com.sun.xml.dtdparser;
 
+import java.util.Arrays;
+
 
 /**
  * Methods in this class are used to determine whether characters may
@@ -23,6 +26,78 @@ public class XmlChars {
     private XmlChars() {
     }
 
+    //
+    // Classes of characters in names, as flag bits
+    //
+    static final int LETTER = 1;        // [84] Letter
+    static final int NAME_START = 2;    // Letter | '_' | ':'
+    static final int NAME_CHAR = 4;     // [4] NameChar
+
+    //
+    // The rules below (mostly Character.getType() and a list of
+    // exceptions) are far too slow to run for every character of every
+    // name, so they're run once for the whole BMP, into a two level
+    // table: the high byte of a character picks one of the distinct
+    // pages of 256 flag bytes, the low byte the flags in that page.
+    // Latin-1 is always the first page, so it needs only one lookup.
+    //
+    private static final char[] PAGES = new char[256];
+    private static final byte[] FLAGS;
+
+    static {
+        byte[] flags = new byte[256 * 256];
+        int used = 0;
+
+        for (int page = 0; page < 256; page++) {
+            byte[] current = new byte[256];
+            for (int i = 0; i < 256; i++) {
+                char c = (char) ((page << 8) | i);
+                int f = 0;
+                if (letter(c)) {
+                    f |= LETTER | NAME_START;
+                }
+                if (c == '_' || c == ':') {
+                    f |= NAME_START;
+                }
+                if (nameChar(c)) {
+                    f |= NAME_CHAR;
+                }
+                current[i] = (byte) f;
+            }
+
+            // share pages with the same contents
+            int offset = 0;
+            while (offset < used
+                    && !Arrays.equals(flags, offset, offset + 256, current, 0, 256)) {
+                offset += 256;
+            }
+            if (offset == used) {
+                System.arraycopy(current, 0, flags, used, 256);
+                used += 256;
+            }
+            PAGES[page] = (char) offset;
+        }
+        FLAGS = Arrays.copyOf(flags, used);
+    }
+
+    /**
+     * Returns the name classes of a character, as {@link #LETTER},
+     * {@link #NAME_START} and {@link #NAME_CHAR} flags.
+     */
+    static int flags(char c) {
+        if (c < 0x100)
+            return FLAGS[c];
+        return FLAGS[PAGES[c >>> 8] + (c & 0xff)];
+    }
+
+    /**
+     * Returns true if the character may start an XML name: a letter,
+     * underscore or colon.
+     */
+    static boolean isNameStart(char c) {
+        return (flags(c) & NAME_START) != 0;
+    }
+
     /**
      * Returns true if the argument, a UCS-4 character code, is valid in
      * XML documents.  Unicode characters fit into the low sixteen
@@ -64,6 +139,11 @@ public class XmlChars {
      * @see #isLetter(char)
      */
     public static boolean isNameChar(char c) {
+        return (flags(c) & NAME_CHAR) != 0;
+    }
+
+    // the rules behind isNameChar(), used to build the table
+    static boolean nameChar(char c) {
         // [4] NameChar ::= Letter | Digit | '.' | '_' | ':'
         //            | CombiningChar | Extender
 
@@ -150,6 +230,11 @@ public class XmlChars {
      * @see #isNCNameChar(char)
      */
     public static boolean isLetter(char c) {
+        return (flags(c) & LETTER) != 0;
+    }
+
+    // the rules behind isLetter(), used to build the table
+    static boolean letter(char c) {
         // [84] Letter ::= BaseChar | Ideographic
         // [85] BaseChar ::= ... too much to repeat
         // [86] Ideographic ::= ... too much to repeat
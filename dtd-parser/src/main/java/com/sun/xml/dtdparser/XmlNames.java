@@ -34,7 +34,7 @@ public class XmlNames {
             return false;
 
         char c = value.charAt(0);
-        if (!XmlChars.isLetter(c) && c != '_' && c != ':')
+        if (!XmlChars.isNameStart(c))
             return false;
         for (int i = 1; i < value.length(); i++)
             if (!XmlChars.isNameChar(value.charAt(i)))
@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
  * Copyright (c) 1998, 2023 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -12,11 +13,23 @@ package com.sun.xml.dtdparser;
 
 import java.io.ByteArrayInputStream;
 import java.io.CharConversionException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PushbackInputStream;
 import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -49,7 +62,10 @@ import java.util.Map;
  */
 // package private
 final class XmlReader extends Reader {
-    private static final int MAXPUSHBACK = 512;
+    static final int MAXPUSHBACK = 512;
+
+    // files up to this size are read whole and decoded in place
+    static final long MAX_BUFFERED_FILE = 32L * 1024 * 1024;
 
     private Reader in;
     private String assignedEncoding;
@@ -83,6 +99,71 @@ final class XmlReader extends Reader {
         return new XmlReader(in);
     }
 
+    /**
+     * Constructs the reader from a file, auto-detecting the encoding
+     * like {@link #createReader(InputStream)} does.
+     * <P> Unless the file is very large, it is read with a single
+     * channel read into an array sized to fit, and the UTF-8, ASCII
+     * and ISO-8859-1 decoders then work straight out of that array,
+     * without a pushback stream or a copy into their own buffers.
+     *
+     * @param file the file from which the reader is constructed
+     * @throws IOException on error, such as unrecognized encoding
+     */
+    static Reader createReader(File file) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        FileChannel channel = stream.getChannel();
+        long size;
+        try {
+            size = channel.size();
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        if (size > MAX_BUFFERED_FILE) {
+            // the stream is the reader's to close, once it's made
+            try {
+                return new XmlReader(Channels.newInputStream(channel));
+            } catch (IOException | RuntimeException e) {
+                stream.close();
+                throw e;
+            }
+        }
+
+        try (stream) {
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining() && channel.read(data) >= 0)
+                continue;
+            return new XmlReader(new ByteSource(data.array(), data.position()));
+        }
+    }
+
+    /**
+     * Constructs the reader from a URL, auto-detecting the encoding.
+     * URLs naming local files are read like {@link #createReader(File)}.
+     *
+     * @param url the URL from which the reader is constructed
+     * @throws IOException on error, such as unrecognized encoding
+     */
+    static Reader createReader(URL url) throws IOException {
+        File file = toFile(url);
+        if (file != null)
+            return createReader(file);
+        return new XmlReader(url.openStream());
+    }
+
+    // returns the local file named by a "file:" URL, else null
+    static File toFile(URL url) {
+        if (!"file".equalsIgnoreCase(url.getProtocol()))
+            return null;
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            // e.g. unescaped spaces, or a host name; let the URL handler cope
+            return null;
+        }
+    }
+
     /**
      * Creates a reader supporting the given encoding, mapping
      * from standard encoding names to ones that understood by
@@ -169,6 +250,16 @@ final class XmlReader extends Reader {
         return temp != null ? temp : encoding;
     }
 
+    // returns the charset for a standard encoding name
+    static Charset charset(String encoding) throws UnsupportedEncodingException {
+        try {
+            return Charset.forName(std2java(encoding));
+        } catch (IllegalArgumentException e) {
+            // illegal or unsupported names
+            throw new UnsupportedEncodingException(encoding);
+        }
+    }
+
     /**
      * Returns the standard name of the encoding in use
      */
@@ -179,12 +270,12 @@ final class XmlReader extends Reader {
     private XmlReader(InputStream stream) throws IOException {
         super(stream);
 
-        PushbackInputStream pb;
+        InputStream pb;
         byte[] buf;
         int len;
 
-        if (stream instanceof PushbackInputStream)
-            pb = (PushbackInputStream) stream;
+        if (stream instanceof PushbackInputStream || stream instanceof ByteSource)
+            pb = stream;
         else
             pb = new PushbackInputStream(stream, MAXPUSHBACK);
 
@@ -195,7 +286,7 @@ final class XmlReader extends Reader {
         buf = new byte[4];
         len = pb.read(buf);
         if (len > 0)
-            pb.unread(buf, 0, len);
+            unread(pb, buf, len);
 
         if (len == 4)
             switch (buf[0] & 0x0ff) {
@@ -285,7 +376,7 @@ final class XmlReader extends Reader {
      * has a variety of "code pages" that have these characters as
      * a common subset.)
      */
-    private void useEncodingDecl(PushbackInputStream pb, String encoding)
+    private void useEncodingDecl(InputStream pb, String encoding)
             throws IOException {
         byte[] buffer = new byte[MAXPUSHBACK];
         int len;
@@ -299,7 +390,7 @@ final class XmlReader extends Reader {
         // what encoding to use!
         //
         len = pb.read(buffer, 0, buffer.length);
-        pb.unread(buffer, 0, len);
+        unread(pb, buffer, len);
         r = new InputStreamReader(new ByteArrayInputStream(buffer, 4, len),
                 encoding);
 
@@ -415,12 +506,29 @@ final class XmlReader extends Reader {
         setEncoding(pb, "UTF-8");
     }
 
+    // pushes back what was just read from the start of the stream
+    private static void unread(InputStream pb, byte[] buf, int len)
+            throws IOException {
+        if (pb instanceof ByteSource)
+            pb.reset();
+        else
+            ((PushbackInputStream) pb).unread(buf, 0, len);
+    }
+
     private void setEncoding(InputStream stream, String encoding)
             throws IOException {
         assignedEncoding = encoding;
         in = createReader(stream, encoding);
     }
 
+    // returns at least the number of characters left to read,
+    // or -1 if that's not known
+    int sizeHint() {
+        if (in instanceof BaseReader)
+            return ((BaseReader) in).sizeHint();
+        return -1;
+    }
+
     /**
      * Reads the number of characters read into the buffer, or -1 on EOF.
      */
@@ -515,6 +623,11 @@ final class XmlReader extends Reader {
     // fewer conditionals in the critical path!
     //
     abstract static class BaseReader extends Reader {
+        // reads eight bytes of a byte[] at once
+        private static final VarHandle LONGS
+                = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+        private static final long HIGH_BITS = 0x8080808080808080L;
+
         protected InputStream instream;
         protected byte[] buffer;
         protected int start, finish;
@@ -523,7 +636,48 @@ final class XmlReader extends Reader {
             super(stream);
 
             instream = stream;
-            buffer = new byte[8192];
+            if (stream instanceof ByteSource) {
+                // all the bytes are there already; decode in place
+                ByteSource source = (ByteSource) stream;
+                buffer = source.array();
+                start = source.position();
+                finish = source.limit();
+                source.skip(finish - start);
+            } else {
+                buffer = new byte[8192];
+            }
+        }
+
+        //
+        // Copies the run of ASCII bytes at the start of the buffer, up to
+        // len of them, and returns its length.  DTD text is almost all
+        // ASCII, so this checks eight bytes at a time for the high bit
+        // rather than branching per byte.
+        //
+        final int readAscii(char[] buf, int offset, int len) {
+            byte[] in = buffer;
+            int pos = start;
+            int end = pos + Math.min(len, finish - pos);
+
+            for (; pos + 8 <= end; pos += 8, offset += 8) {
+                if (((long) LONGS.get(in, pos) & HIGH_BITS) != 0)
+                    break;
+                for (int k = 0; k < 8; k++)
+                    buf[offset + k] = (char) in[pos + k];
+            }
+            for (byte b; pos < end && (b = in[pos]) >= 0; pos++)
+                buf[offset++] = (char) b;
+
+            int n = pos - start;
+            start = pos;
+            return n;
+        }
+
+        // for in-memory sources; each byte decodes to at most one char
+        int sizeHint() {
+            if (instream instanceof ByteSource)
+                return finish - start;
+            return -1;
         }
 
         @Override
@@ -598,13 +752,13 @@ final class XmlReader extends Reader {
                 //
 
                 //
-                // Single byte == ASCII.  Common; optimize.
+                // Single byte == ASCII.  Common; optimize, by
+                // taking the whole run of them.
                 //
                 c = buffer[start] & 0x0ff;
                 if ((c & 0x80) == 0x00) {
                     // 0x0000 <= c <= 0x007f
-                    start++;
-                    buf[offset + i++] = (char) c;
+                    i += readAscii(buf, offset + i, len - i);
                     continue;
                 }
 
@@ -729,7 +883,7 @@ final class XmlReader extends Reader {
             if (instream == null)
                 return -1;
 
-            for (i = 0; i < len; i++) {
+            for (i = 0; i < len; ) {
                 if (start >= finish) {
                     start = 0;
                     finish = instream.read(buffer, 0, buffer.length);
@@ -738,11 +892,12 @@ final class XmlReader extends Reader {
                         break;
                     }
                 }
-                c = buffer[start++];
-                if ((c & 0x80) != 0)
+                i += readAscii(buf, offset + i, len - i);
+                if (i < len && start < finish) {
+                    c = buffer[start++];
                     throw new CharConversionException("Illegal ASCII character, 0x"
                             + Integer.toHexString(c & 0xff));
-                buf[offset + i] = (char) c;
+                }
             }
             if (i == 0 && finish <= 0)
                 return -1;
@@ -778,4 +933,26 @@ final class XmlReader extends Reader {
             return i;
         }
     }
+
+    //
+    // The complete content of an entity, held in memory.  Readers for the
+    // simple encodings use its array as their buffer instead of copying.
+    //
+    static final class ByteSource extends ByteArrayInputStream {
+        ByteSource(byte[] buf, int length) {
+            super(buf, 0, length);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        int limit() {
+            return count;
+        }
+    }
 }
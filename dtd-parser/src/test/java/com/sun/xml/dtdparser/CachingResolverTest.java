@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CachingResolverTest {
+
+    // counts the entities it's asked for
+    private static final class Counter extends Resolver {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public InputSource resolveEntity(String publicId, String systemId) throws IOException {
+            calls.incrementAndGet();
+            if (systemId.startsWith("mem:")) {
+                InputSource in = new InputSource(new StringReader("<!-- " + systemId + " -->"));
+                in.setPublicId(publicId);
+                in.setSystemId(systemId);
+                return in;
+            }
+            return super.resolveEntity(publicId, systemId);
+        }
+    }
+
+    private static String text(InputSource in) throws IOException {
+        Reader r = in.getCharacterStream() != null ? in.getCharacterStream()
+                : XmlReader.createReader(in.getByteStream(), in.getEncoding());
+        StringBuilder sb = new StringBuilder();
+        try (Reader reader = r) {
+            for (int c; (c = reader.read()) != -1; ) {
+                sb.append((char) c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String write(Path file, String text) throws IOException {
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file.toUri().toString();
+    }
+
+    @Test
+    public void testMemory() throws Exception {
+        Counter counter = new Counter();
+        CachingResolver resolver = new CachingResolver(counter, 2, 1024, null);
+        for (int i = 0; i < 3; i++) {
+            InputSource in = resolver.resolveEntity("-//A//EN", "mem:/a.ent");
+            Assertions.assertEquals("<!-- mem:/a.ent -->", text(in));
+            Assertions.assertEquals("-//A//EN", in.getPublicId());
+            Assertions.assertEquals("mem:/a.ent", in.getSystemId());
+        }
+        Assertions.assertEquals(1, counter.calls.get());
+        Assertions.assertEquals(2, resolver.getHitCount());
+        Assertions.assertEquals(1, resolver.getMissCount());
+        Assertions.assertEquals(2.0 / 3, resolver.getHitRatio(), 1e-9);
+
+        // least recently used first
+        resolver.resolveEntity(null, "mem:/b.ent");
+        resolver.resolveEntity("-//A//EN", "mem:/a.ent");
+        resolver.resolveEntity(null, "mem:/c.ent");
+        Assertions.assertEquals(2, resolver.size());
+        resolver.resolveEntity("-//A//EN", "mem:/a.ent");
+        Assertions.assertEquals(3, counter.calls.get());
+        resolver.resolveEntity(null, "mem:/b.ent");
+        Assertions.assertEquals(4, counter.calls.get());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CachingResolver(counter, 0, 1024, null));
+    }
+
+    @Test
+    public void testChangedFile() throws Exception {
+        Path dir = Files.createTempDirectory("resolver");
+        Path file = dir.resolve("mod.ent");
+        String uri = write(file, "<!ELEMENT a EMPTY>");
+        Counter counter = new Counter();
+        CachingResolver resolver = new CachingResolver(counter);
+
+        Assertions.assertEquals("<!ELEMENT a EMPTY>", text(resolver.resolveEntity(null, uri)));
+        Assertions.assertEquals("<!ELEMENT a EMPTY>", text(resolver.resolveEntity(null, uri)));
+        Assertions.assertEquals(1, counter.calls.get());
+
+        write(file, "<!ELEMENT a ANY>");
+        Assertions.assertEquals("<!ELEMENT a ANY>", text(resolver.resolveEntity(null, uri)));
+        Assertions.assertEquals(2, counter.calls.get());
+    }
+
+    @Test
+    public void testDirectory() throws Exception {
+        Path dir = Files.createTempDirectory("resolver");
+        File cache = dir.resolve("cache").toFile();
+        String uri = write(dir.resolve("mod.ent"),
+                "<?xml version='1.0' encoding='UTF-8'?><!ENTITY e '\u00e9'>");
+
+        Counter counter = new Counter();
+        InputSource first = new CachingResolver(counter, 16, 1024, cache).resolveEntity(null, uri);
+        InputSource second = new CachingResolver(counter, 16, 1024, cache).resolveEntity(null, uri);
+        String text = text(first);
+        Assertions.assertTrue(text.endsWith("'\u00e9'>"), text);
+        Assertions.assertEquals(text, text(second));
+        Assertions.assertEquals(first.getSystemId(), second.getSystemId());
+        CachingResolver resolver = new CachingResolver(counter, 16, 1024, cache);
+        InputSource third = resolver.resolveEntity("-//M//EN", "mem:/m.ent");
+        Assertions.assertEquals(2, counter.calls.get());
+        Assertions.assertEquals(text(third), text(new CachingResolver(counter, 16, 1024, cache)
+                .resolveEntity("-//M//EN", "mem:/m.ent")));
+        Assertions.assertEquals(2, counter.calls.get());
+
+        // damaged files are read again
+        File[] files = cache.listFiles();
+        Assertions.assertEquals(2, files.length);
+        for (File f : files) {
+            byte[] bytes = Files.readAllBytes(f.toPath());
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(f.toPath(), bytes);
+            f.deleteOnExit();
+        }
+        resolver = new CachingResolver(counter, 16, 1024, cache);
+        Assertions.assertEquals(text, text(resolver.resolveEntity(null, uri)));
+        Assertions.assertEquals(3, counter.calls.get());
+        Assertions.assertEquals(0, resolver.getDiskHitCount());
+        resolver.clear();
+        resolver.resolveEntity(null, uri);
+        Assertions.assertEquals(1, resolver.getDiskHitCount());
+        Assertions.assertEquals(3, counter.calls.get());
+    }
+
+    @Test
+    public void testConcurrentParses() throws Exception {
+        Path dir = Files.createTempDirectory("resolver");
+        write(dir.resolve("mod.ent"), "<!ELEMENT a EMPTY>\n<!ELEMENT b (a)*>\n");
+        Path main = dir.resolve("main.dtd");
+        write(main, "<!ENTITY % mod SYSTEM 'mod.ent'>\n%mod;\n");
+
+        CachingResolver resolver = new CachingResolver();
+        DTDParserPool pool = new DTDParserPool(4, resolver);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> {
+                    DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+                    pool.parse(Resolver.createInputSource(main.toFile()), recorder);
+                    return recorder.events;
+                }));
+            }
+            List<String> expected = results.get(0).get();
+            Assertions.assertTrue(expected.toString().contains("element b"), expected.toString());
+            for (Future<List<String>> result : results) {
+                Assertions.assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(32, resolver.getHitCount() + resolver.getMissCount());
+        Assertions.assertTrue(resolver.getHitCount() >= 28, resolver.toString());
+    }
+}
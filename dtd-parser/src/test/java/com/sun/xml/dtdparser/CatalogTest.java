@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CatalogTest {
+
+    private static final String CATALOG = "<?xml version='1.0'?>\n"
+            + "<!DOCTYPE catalog PUBLIC '-//OASIS//DTD XML Catalogs V1.1//EN'\n"
+            + "  'http://localhost:1/never/catalog.dtd'>\n"
+            + "<catalog xmlns='urn:oasis:names:tc:entity:xmlns:xml:catalog'>\n"
+            + "  <public publicId='-//TEST//DTD Doc//EN' uri='dtd/doc.dtd'/>\n"
+            + "  <public publicId='  -//TEST//ENTITIES\n   Chars//EN ' uri='dtd/chars.ent'/>\n"
+            + "  <system systemId='http://example.com/doc.dtd' uri='dtd/doc.dtd'/>\n"
+            + "  <group prefer='system' xml:base='http://mirror.example.com/'>\n"
+            + "    <public publicId='-//TEST//DTD Other//EN' uri='other.dtd'/>\n"
+            + "    <rewriteSystem systemIdStartString='http://example.com/' rewritePrefix='all/'/>\n"
+            + "    <rewriteSystem systemIdStartString='http://example.com/mods/' rewritePrefix='mods/'/>\n"
+            + "  </group>\n"
+            + "  <nextCatalog catalog='next.xml'/>\n"
+            + "  <nextCatalog catalog='missing.xml'/>\n"
+            + "</catalog>\n";
+
+    private static final String NEXT = "<catalog xmlns='urn:oasis:names:tc:entity:xmlns:xml:catalog'>\n"
+            + "  <public publicId='-//TEST//DTD Doc//EN' uri='ignored.dtd'/>\n"
+            + "  <public publicId='-//TEST//DTD Next//EN' uri='next.dtd'/>\n"
+            + "  <nextCatalog catalog='catalog.xml'/>\n"
+            + "</catalog>\n";
+
+    private static Path write(Path dir, String name, String text) throws IOException {
+        Path file = dir.resolve(name);
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void check(Catalog catalog, String base) {
+        Assertions.assertEquals(base + "dtd/doc.dtd", catalog.resolve("-//TEST//DTD Doc//EN", null));
+        Assertions.assertEquals(base + "dtd/chars.ent", catalog.resolve("-//TEST//ENTITIES Chars//EN", "x.ent"));
+        Assertions.assertEquals(base + "dtd/doc.dtd", catalog.resolve(null, "http://example.com/doc.dtd"));
+        Assertions.assertEquals(base + "next.dtd", catalog.resolve("-//TEST//DTD Next//EN", null));
+
+        // prefer="system"
+        Assertions.assertEquals("http://mirror.example.com/other.dtd",
+                catalog.resolve("-//TEST//DTD Other//EN", null));
+        Assertions.assertNull(catalog.resolve("-//TEST//DTD Other//EN", "other.dtd"));
+
+        // system entries first, then the longest prefix
+        Assertions.assertEquals(base + "dtd/doc.dtd",
+                catalog.resolve("-//TEST//DTD Next//EN", "http://example.com/doc.dtd"));
+        Assertions.assertEquals("http://mirror.example.com/mods/a/b.mod",
+                catalog.resolve(null, "http://example.com/mods/a/b.mod"));
+        Assertions.assertEquals("http://mirror.example.com/all/x.dtd",
+                catalog.resolve(null, "http://example.com/x.dtd"));
+        Assertions.assertNull(catalog.resolve(null, "http://example.com"));
+        Assertions.assertNull(catalog.resolve("-//TEST//DTD Unknown//EN", "unknown.dtd"));
+        // including the next catalog's Doc entry, never used
+        Assertions.assertEquals(8, catalog.size());
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        Path dir = Files.createTempDirectory("catalog");
+        Path file = write(dir, "catalog.xml", CATALOG);
+        write(dir, "next.xml", NEXT);
+        String base = dir.toFile().toURI().toString();
+
+        Catalog catalog = Catalog.parse(file.toFile());
+        check(catalog, base);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalog.write(out);
+        check(Catalog.read(new ByteArrayInputStream(out.toByteArray())), base);
+        Assertions.assertThrows(IOException.class,
+                () -> Catalog.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+        Assertions.assertThrows(IOException.class,
+                () -> Catalog.parse(dir.resolve("missing.xml").toFile()));
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        Path dir = Files.createTempDirectory("catalog");
+        Path file = write(dir, "catalog.xml", "<catalog xmlns='urn:oasis:names:tc:entity:xmlns:xml:catalog'>\n"
+                + "  <public publicId='-//X//DTD X//EN' uri='from-first.dtd'/>\n"
+                + "  <nextCatalog catalog='next.xml'/>\n"
+                + "</catalog>\n");
+        write(dir, "next.xml", "<catalog xmlns='urn:oasis:names:tc:entity:xmlns:xml:catalog'>\n"
+                + "  <system systemId='http://example.com/x.dtd' uri='from-next.dtd'/>\n"
+                + "  <rewriteSystem systemIdStartString='http://example.com/' rewritePrefix='next/'/>\n"
+                + "</catalog>\n");
+        String base = dir.toFile().toURI().toString();
+
+        // a catalog's public entry wins over its next catalog's system entry
+        Catalog catalog = Catalog.parse(file.toFile());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalog.write(out);
+        for (Catalog c : new Catalog[]{catalog, Catalog.read(new ByteArrayInputStream(out.toByteArray()))}) {
+            Assertions.assertEquals(base + "from-first.dtd", c.resolve("-//X//DTD X//EN", "http://example.com/x.dtd"));
+            Assertions.assertEquals(base + "from-next.dtd", c.resolve("-//Y//DTD Y//EN", "http://example.com/x.dtd"));
+            Assertions.assertEquals(base + "from-next.dtd", c.resolveSystem("http://example.com/x.dtd"));
+            Assertions.assertEquals(base + "next/y.dtd", c.resolve(null, "http://example.com/y.dtd"));
+        }
+    }
+
+    @Test
+    public void testResolver() throws Exception {
+        Path dir = Files.createTempDirectory("catalog");
+        Files.createDirectory(dir.resolve("dtd"));
+        write(dir, "dtd/doc.dtd", "<!ELEMENT doc EMPTY>\n");
+        write(dir, "next.xml", NEXT);
+
+        Resolver resolver = new Resolver();
+        resolver.setCatalog(Catalog.parse(write(dir, "catalog.xml", CATALOG).toFile()));
+        InputSource in = resolver.resolveEntity("-//TEST//DTD Doc//EN", "http://localhost:1/doc.dtd");
+        Assertions.assertEquals(dir.resolve("dtd/doc.dtd").toUri().toURL().toString(), in.getSystemId());
+
+        // registered entries first
+        resolver.registerCatalogEntry("-//TEST//DTD Doc//EN", "mem:/doc.dtd");
+        Assertions.assertThrows(IOException.class,
+                () -> resolver.resolveEntity("-//TEST//DTD Doc//EN", "http://localhost:1/doc.dtd"));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CharArenaTest {
+
+    private static String text(CharArena arena, int offset, int length) {
+        return new String(arena.array(), offset, length);
+    }
+
+    @Test
+    public void testSlices() {
+        CharArena arena = new CharArena();
+        int a = arena.add(new TextBuffer().append("first"));
+        char[] slab = arena.array();
+        int b = arena.add(new TextBuffer().append("second"));
+        Assertions.assertSame(slab, arena.array());
+        Assertions.assertEquals(5, b - a);
+        Assertions.assertEquals("second", text(arena, b, 6));
+        Assertions.assertEquals("first", new String(slab, a, 5));
+
+        // too long for a slab
+        String big = "x".repeat(CharArena.MAX_SLICE + 1);
+        Assertions.assertEquals(0, arena.add(new TextBuffer().append(big)));
+        Assertions.assertEquals(big.length(), arena.array().length);
+
+        // the slab filled, then the next
+        TextBuffer slice = new TextBuffer().append("y".repeat(CharArena.MAX_SLICE));
+        for (int i = 1; i < CharArena.SLAB / CharArena.MAX_SLICE; i++) {
+            Assertions.assertEquals(11 + (i - 1) * slice.length(), arena.add(slice));
+            Assertions.assertSame(slab, arena.array());
+        }
+        Assertions.assertEquals(0, arena.add(slice));
+        Assertions.assertNotSame(slab, arena.array());
+        Assertions.assertEquals(slice.toString(), text(arena, 0, slice.length()));
+
+        // reused once cleared
+        arena.clear();
+        Assertions.assertEquals(0, arena.add(new TextBuffer().append("again")));
+        Assertions.assertSame(slab, arena.array());
+    }
+
+    @Test
+    public void testBuffers() {
+        CharArena arena = new CharArena();
+        Assertions.assertNull(arena.buffer(1));
+        char[] small = new char[10];
+        char[] large = new char[100];
+        arena.release(large);
+        arena.release(small);
+        Assertions.assertSame(small, arena.buffer(5));
+        Assertions.assertNull(arena.buffer(101));
+        Assertions.assertSame(large, arena.buffer(11));
+        Assertions.assertNull(arena.buffer(1));
+
+        // the longest are kept
+        for (int i = 1; i <= CharArena.MAX_FREE + 2; i++) {
+            arena.release(new char[i]);
+        }
+        Assertions.assertNull(arena.buffer(CharArena.MAX_FREE + 3));
+        Assertions.assertEquals(3, arena.buffer(1).length);
+
+        // within bounds, between parses
+        arena.release(new char[CharArena.KEEP]);
+        arena.clear();
+        Assertions.assertNull(arena.buffer(CharArena.KEEP));
+        Assertions.assertNotNull(arena.buffer(CharArena.MAX_FREE + 2));
+    }
+
+    @Test
+    public void testParses() throws Exception {
+        // modules read whole, one of them twice, and entities long
+        // enough to go in the arena rather than be shared
+        Map<String, File> modules = new HashMap<>();
+        String[] texts = {
+            "<!ELEMENT a (#PCDATA)>\n<!ATTLIST a v (x|y|z) 'x'>\n",
+            "<!ENTITY % long '" + "b | ".repeat(100) + "b'>\n<!ELEMENT b (%long;)*>\n"
+                    + "<!ENTITY huge '" + "&#233;".repeat(CharArena.MAX_SLICE) + "'>\n",
+        };
+        for (int i = 0; i < texts.length; i++) {
+            File file = File.createTempFile("module", ".ent");
+            file.deleteOnExit();
+            Files.write(file.toPath(), texts[i].getBytes(StandardCharsets.UTF_8));
+            modules.put("mem:/" + i + ".ent", file);
+        }
+        String dtd = "<!ENTITY % m0 SYSTEM '0.ent'>\n<!ENTITY % m1 SYSTEM '1.ent'>\n"
+                + "%m0;\n%m1;\n<!ENTITY % again SYSTEM '0.ent'>\n%again;\n"
+                + "<!ELEMENT c (%long;)>\n";
+
+        DTDParser parser = new DTDParser();
+        List<String> first = null;
+        for (int run = 0; run < 3; run++) {
+            DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+            parser.setDtdHandler(recorder);
+            parser.setEntityResolver((publicId, systemId) -> Resolver.createInputSource(modules.get(systemId)));
+            InputSource in = new InputSource(new StringReader(dtd));
+            in.setSystemId("mem:/main.dtd");
+            parser.parse(in);
+            if (first == null) {
+                first = recorder.events;
+            } else {
+                Assertions.assertEquals(first, recorder.events);
+            }
+        }
+        String events = String.join("\n", first);
+        Assertions.assertTrue(events.contains("entity huge " + "\u00e9".repeat(CharArena.MAX_SLICE)), events);
+        Assertions.assertEquals(2, first.stream().filter(e -> e.contains("attribute a v")).count());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ContentAutomatonTest {
+
+    private static ContentModel model(String contentModel) throws Exception {
+        DTDModelBuilder builder = new DTDModelBuilder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(builder);
+        InputSource in = new InputSource(new StringReader("<!ELEMENT e " + contentModel + ">"));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+        return builder.getModel().getElement("e").getContentModel();
+    }
+
+    private static ContentAutomaton automaton(String contentModel) throws Exception {
+        return model(contentModel).getAutomaton();
+    }
+
+    // all sequences of up to length letters from the alphabet
+    private static List<String> sequences(String alphabet, int length) {
+        List<String> all = new ArrayList<>();
+        all.add("");
+        for (int from = 0, n = 0; n < length; n++) {
+            int to = all.size();
+            for (int i = from; i < to; i++) {
+                for (char c : alphabet.toCharArray()) {
+                    all.add(all.get(i) + c);
+                }
+            }
+            from = to;
+        }
+        return all;
+    }
+
+    @Test
+    public void testAgainstRegex() throws Exception {
+        String[] models = {
+                "(a)", "(a?,b+,c*)", "(a|b|c)+", "((a|b)*,c?)+", "(a,(b|c)*,a)", "((a,b)|(a,c))",
+                "(a*,a)", "((a?,b?)*,c)", "(#PCDATA)", "(#PCDATA|a|b)*", "((a|b),(c|(a,b)*))?",
+        };
+        List<String> sequences = sequences("abcx", 6);
+        for (String m : models) {
+            ContentModel model = model(m);
+            ContentAutomaton automaton = model.getAutomaton();
+            Assertions.assertSame(automaton, model.getAutomaton());
+            String regex = model.toString().replace(",", "").replace("#PCDATA|", "").replace("(#PCDATA)", "()");
+            Pattern pattern = Pattern.compile(regex);
+            for (String s : sequences) {
+                String[] children = s.isEmpty() ? new String[0] : s.split("");
+                Assertions.assertEquals(pattern.matcher(s).matches(), automaton.accepts(children), m + " " + s);
+
+                int[] symbols = new int[children.length + 2];
+                for (int i = 0; i < children.length; i++) {
+                    symbols[i + 1] = automaton.getSymbol(children[i]);
+                }
+                Assertions.assertEquals(automaton.accepts(children),
+                        automaton.accepts(symbols, 1, children.length), m + " " + s);
+            }
+        }
+    }
+
+    @Test
+    public void testSteps() throws Exception {
+        ContentAutomaton automaton = automaton("(head?, (p | list)+, (b | i)*)");
+        Assertions.assertEquals(5, automaton.getSymbolCount());
+        Assertions.assertEquals("head", automaton.getName(0));
+        Assertions.assertEquals(ContentAutomaton.REJECT, automaton.getSymbol("body"));
+        Assertions.assertTrue(automaton.isDeterministic());
+        // one state per element particle and the start, but p and list
+        // step alike, as do b and i
+        Assertions.assertEquals(4, automaton.getStateCount());
+        Assertions.assertEquals(1, automaton("(#PCDATA | a | b)*").getStateCount());
+
+        int state = automaton.getStartState();
+        Assertions.assertFalse(automaton.isFinal(state));
+        state = automaton.step(state, automaton.getSymbol("head"));
+        state = automaton.step(state, automaton.getSymbol("list"));
+        Assertions.assertTrue(automaton.isFinal(state));
+        Assertions.assertEquals(ContentAutomaton.REJECT, automaton.step(state, automaton.getSymbol("head")));
+        Assertions.assertEquals(ContentAutomaton.REJECT, automaton.step(state, ContentAutomaton.REJECT));
+        Assertions.assertEquals(ContentAutomaton.REJECT, automaton.step(ContentAutomaton.REJECT, 0));
+        Assertions.assertFalse(automaton.isFinal(ContentAutomaton.REJECT));
+
+        Assertions.assertTrue(automaton.accepts("p", "p", "list", "b", "i"));
+        Assertions.assertFalse(automaton.accepts("p", "b", "p"));
+        Assertions.assertFalse(automaton.accepts("head", "body"));
+    }
+
+    @Test
+    public void testNondeterministic() throws Exception {
+        ContentAutomaton automaton = automaton("((a, b) | (a, c))");
+        Assertions.assertFalse(automaton.isDeterministic());
+        Assertions.assertTrue(automaton.accepts("a", "b"));
+        Assertions.assertTrue(automaton.accepts("a", "c"));
+        Assertions.assertFalse(automaton.accepts("a"));
+        // subsets of positions, made deterministic: the start, a, then b or c
+        Assertions.assertEquals(3, automaton.getStateCount());
+
+        Assertions.assertTrue(automaton("(#PCDATA | a)*").isDeterministic());
+        Assertions.assertFalse(automaton("(a*, a)").isDeterministic());
+    }
+}
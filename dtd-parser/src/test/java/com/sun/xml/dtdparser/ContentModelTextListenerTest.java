@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ContentModelTextListenerTest {
+
+    private static final String DTD = "<!ENTITY % inline 'b | i'>\n"
+            + "<!ELEMENT doc ( head? , ( p | list )+ , (%inline;)* )>\n"
+            + "<!ELEMENT head (#PCDATA)>\n"
+            + "<!ELEMENT title (#PCDATA)*>\n"
+            + "<!ELEMENT p (#PCDATA | %inline;)*>\n"
+            + "<!ELEMENT list ((item))>\n"
+            + "<!ELEMENT b ANY>\n"
+            + "<!ELEMENT br EMPTY>\n";
+
+    // as passed for the DTD
+    private static final List<String> TEXTS = List.of("doc (head?,(p|list)+,(b|i)*)", "head (#PCDATA)",
+            "title (#PCDATA)*", "p (#PCDATA|b|i)*", "list ((item))");
+
+    // the texts, along with a model built from the events
+    private static final class Texts extends DTDModelBuilder implements ContentModelTextListener {
+        final List<String> texts = new ArrayList<>();
+
+        @Override
+        public void contentModelText(String elementName, CharSequence text) {
+            Assertions.assertFalse(text instanceof String);
+            texts.add(elementName + " " + text);
+        }
+    }
+
+    private static void parse(DTDEventListener handler, DTDCache cache) throws Exception {
+        DTDParser parser = new DTDParser();
+        parser.setCache(cache);
+        parser.setDtdHandler(handler);
+        InputSource in = new InputSource(new StringReader(DTD));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+    }
+
+    @Test
+    public void testText() throws Exception {
+        Texts texts = new Texts();
+        parse(texts, null);
+
+        Assertions.assertEquals(TEXTS, texts.texts);
+        for (String text : texts.texts) {
+            String name = text.substring(0, text.indexOf(' '));
+            if (!name.equals("title")) {
+                Assertions.assertEquals(text, texts.getModel().getElement(name).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        // recorded, the text is passed all the same
+        DTDCache cache = new DTDCache();
+        Texts texts = new Texts();
+        parse(texts, cache);
+        Assertions.assertEquals(TEXTS, texts.texts);
+
+        // but not replayed
+        Texts replayed = new Texts();
+        parse(replayed, cache);
+        Assertions.assertEquals(1L, cache.getHitCount());
+        Assertions.assertEquals(List.of(), replayed.texts);
+        Assertions.assertEquals(texts.getModel().getElements().toString(),
+                replayed.getModel().getElements().toString());
+
+        // and recorded for a handler not asking for it
+        DTDModelBuilder builder = new DTDModelBuilder();
+        parse(builder, new DTDCache());
+        Assertions.assertEquals(texts.getModel().getElement("doc").toString(),
+                builder.getModel().getElement("doc").toString());
+    }
+}
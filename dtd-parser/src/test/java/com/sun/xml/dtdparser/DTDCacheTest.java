@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDCacheTest {
+
+    private static final String DTD = "<!ENTITY % mod SYSTEM \"mod.ent\">\n"
+            + "%mod;\n"
+            + "<!ELEMENT p (#PCDATA | %inline;)*>\n"
+            + "<!-- note -->\n"
+            + "<!ATTLIST p align (left|right) \"left\">\n";
+
+    private final Map<String, String> files = new HashMap<>();
+
+    DTDCacheTest() {
+        files.put("mem:/mod.ent", "<!ENTITY % inline \"b | i\">\n<!ELEMENT b EMPTY>\n<!ELEMENT i EMPTY>\n");
+    }
+
+    private List<String> parse(DTDCache cache, String dtd) throws Exception {
+        List<String> events = new ArrayList<>();
+        DTDParser parser = new DTDParser();
+        parser.setCache(cache);
+        parser.setEntityResolver((publicId, systemId) -> {
+            InputSource in = new InputSource(new StringReader(files.get(systemId)));
+            in.setSystemId(systemId);
+            return in;
+        });
+        parser.setDtdHandler(new DTDHandlerBase() {
+            private Locator locator;
+
+            @Override
+            public void setDocumentLocator(Locator loc) {
+                locator = loc;
+            }
+
+            private void add(String event) {
+                events.add(locator.getSystemId() + ":" + locator.getLineNumber() + " " + event);
+            }
+
+            @Override
+            public void startContentModel(String elementName, short contentModelType) throws SAXException {
+                add("element " + elementName);
+            }
+
+            @Override
+            public void mixedElement(String elementName) throws SAXException {
+                add("mixed " + elementName);
+            }
+
+            @Override
+            public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                      String[] enumeration, short attributeUse, String defaultValue)
+                    throws SAXException {
+                add("attribute " + attributeName + " " + String.join("|", enumeration) + " " + defaultValue);
+            }
+        });
+        InputSource in = new InputSource(new StringReader(dtd));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+        return events;
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        DTDCache cache = new DTDCache();
+        List<String> parsed = parse(cache, DTD);
+        Assertions.assertEquals(List.of(
+                "mem:/mod.ent:2 element b",
+                "mem:/mod.ent:3 element i",
+                "mem:/main.dtd:3 element p",
+                "mem:/main.dtd:3 mixed b",
+                "mem:/main.dtd:3 mixed i",
+                "mem:/main.dtd:5 attribute align left|right left"), parsed);
+        Assertions.assertEquals(0L, cache.getHitCount());
+        Assertions.assertEquals(1, cache.size());
+
+        Assertions.assertEquals(parsed, parse(cache, DTD));
+        Assertions.assertEquals(parsed, parse(cache, DTD));
+        Assertions.assertEquals(2L, cache.getHitCount());
+        Assertions.assertEquals(1L, cache.getMissCount());
+        Assertions.assertEquals(2.0 / 3, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void testChangedContent() throws Exception {
+        DTDCache cache = new DTDCache();
+        parse(cache, DTD);
+        List<String> changed = parse(cache, DTD.replace("right", "center"));
+        Assertions.assertEquals("mem:/main.dtd:5 attribute align left|center left", changed.get(5));
+        Assertions.assertEquals(0L, cache.getHitCount());
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testChangedExternalEntity() throws Exception {
+        DTDCache cache = new DTDCache();
+        parse(cache, DTD);
+        files.put("mem:/mod.ent", "<!ENTITY % inline \"b\">\n<!ELEMENT b EMPTY>\n");
+        List<String> changed = parse(cache, DTD);
+        Assertions.assertEquals(List.of(
+                "mem:/mod.ent:2 element b",
+                "mem:/main.dtd:3 element p",
+                "mem:/main.dtd:3 mixed b",
+                "mem:/main.dtd:5 attribute align left|right left"), changed);
+        Assertions.assertEquals(0L, cache.getHitCount());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        DTDCache cache = new DTDCache(2, Long.MAX_VALUE);
+        parse(cache, DTD);
+        parse(cache, DTD + "<!-- 2 -->");
+        parse(cache, DTD);
+        parse(cache, DTD + "<!-- 3 -->");
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1L, cache.getHitCount());
+
+        // the second one was least recently used
+        parse(cache, DTD + "<!-- 2 -->");
+        Assertions.assertEquals(1L, cache.getHitCount());
+        parse(cache, DTD + "<!-- 2 -->");
+        Assertions.assertEquals(2L, cache.getHitCount());
+    }
+
+    @Test
+    public void testFailedParseNotCached() throws Exception {
+        DTDCache cache = new DTDCache();
+        Assertions.assertThrows(SAXException.class, () -> parse(cache, "<!ELEMENT p (#PCDATA"));
+        Assertions.assertEquals(0, cache.size());
+    }
+}
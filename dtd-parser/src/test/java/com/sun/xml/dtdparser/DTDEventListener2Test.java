@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDEventListener2Test {
+
+    private static final String DTD = "<!-- a comment -->\n"
+            + "<?target some data?>\n"
+            + "<!ENTITY e 'value &#65; &amp;'>\n"
+            + "<!ELEMENT a EMPTY>\n"
+            + "<!ATTLIST a\n"
+            + "  c CDATA '  spaced \n out  '\n"
+            + "  t NMTOKEN #FIXED 'tok'\n"
+            + "  xml:lang CDATA 'en-US'\n"
+            + "  i CDATA #IMPLIED>\n";
+
+    // takes the text as it comes
+    private static final class Views extends DTDHandlerBase implements DTDEventListener2 {
+        final List<String> events = new ArrayList<>();
+        // whether the events are replayed from a cache, as strings
+        boolean replayed;
+
+        private void add(String event, CharSequence text) {
+            Assertions.assertEquals(replayed, text instanceof String, event);
+            events.add(event + " " + text);
+        }
+
+        @Override
+        public void processingInstruction(String target, CharSequence data) {
+            add("pi " + target, data);
+        }
+
+        @Override
+        public void internalGeneralEntityDecl(String name, CharSequence value) {
+            add("entity " + name, value);
+        }
+
+        @Override
+        public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                  String[] enumeration, short attributeUse, CharSequence defaultValue) {
+            if (defaultValue == null) {
+                events.add("attribute " + attributeName + " null");
+            } else {
+                add("attribute " + attributeName, defaultValue);
+            }
+        }
+    }
+
+    // takes the strings
+    private static final class Strings extends DTDHandlerBase {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void processingInstruction(String target, String data) {
+            events.add("pi " + target + " " + data);
+        }
+
+        @Override
+        public void internalGeneralEntityDecl(String name, String value) {
+            events.add("entity " + name + " " + value);
+        }
+
+        @Override
+        public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                  String[] enumeration, short attributeUse, String defaultValue) {
+            events.add("attribute " + attributeName + " " + defaultValue);
+        }
+    }
+
+    private static void parse(DTDEventListener handler) throws Exception {
+        parse(handler, null);
+    }
+
+    private static void parse(DTDEventListener handler, DTDCache cache) throws Exception {
+        DTDParser parser = new DTDParser();
+        parser.setCache(cache);
+        parser.setDtdHandler(handler);
+        InputSource in = new InputSource(new StringReader(DTD));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+    }
+
+    @Test
+    public void testViews() throws Exception {
+        Strings strings = new Strings();
+        parse(strings);
+        Assertions.assertEquals(List.of("pi target some data",
+                "entity e value A &amp;",
+                "attribute c spaced out",
+                "attribute t tok",
+                "attribute xml:lang en-US",
+                "attribute i null"), strings.events);
+
+        Views views = new Views();
+        parse(views);
+        Assertions.assertEquals(strings.events, views.events);
+    }
+
+    @Test
+    public void testDefaults() throws Exception {
+        // the string variants, called by default
+        class Both extends DTDHandlerBase implements DTDEventListener2 {
+            final Strings strings = new Strings();
+
+            @Override
+            public void processingInstruction(String target, String data) {
+                strings.processingInstruction(target, data);
+            }
+
+            @Override
+            public void internalGeneralEntityDecl(String name, String value) {
+                strings.internalGeneralEntityDecl(name, value);
+            }
+
+            @Override
+            public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                      String[] enumeration, short attributeUse, String defaultValue)
+                    throws SAXException {
+                strings.attributeDecl(elementName, attributeName, attributeType, enumeration,
+                        attributeUse, defaultValue);
+            }
+        }
+        Strings strings = new Strings();
+        parse(strings);
+        Both both = new Both();
+        parse(both);
+        Assertions.assertEquals(strings.events, both.strings.events);
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        Strings strings = new Strings();
+        parse(strings);
+
+        // recorded, the text still comes as views
+        DTDCache cache = new DTDCache();
+        Views views = new Views();
+        parse(views, cache);
+        Assertions.assertEquals(0L, cache.getHitCount());
+        Assertions.assertEquals(strings.events, views.events);
+
+        // replayed, as strings to the same methods
+        Views replayed = new Views();
+        replayed.replayed = true;
+        parse(replayed, cache);
+        Strings replayedStrings = new Strings();
+        parse(replayedStrings, cache);
+        Assertions.assertEquals(2L, cache.getHitCount());
+        Assertions.assertEquals(strings.events, replayed.events);
+        Assertions.assertEquals(strings.events, replayedStrings.events);
+
+        // recorded for a listener taking strings
+        Strings recorded = new Strings();
+        parse(recorded, new DTDCache());
+        Assertions.assertEquals(strings.events, recorded.events);
+    }
+
+    @Test
+    public void testIgnored() throws Exception {
+        Assertions.assertTrue(DTDParser.ignoresEntityValues(new DTDHandlerBase()));
+        Assertions.assertTrue(DTDParser.ignoresEntityValues(new DTDHandlerBase() {
+            @Override
+            public void endDTD() {
+            }
+        }));
+        class Quiet extends DTDHandlerBase implements DTDEventListener2 {
+        }
+        Assertions.assertTrue(DTDParser.ignoresEntityValues(new Quiet()));
+
+        Assertions.assertFalse(DTDParser.ignoresEntityValues(new Strings()));
+        Assertions.assertFalse(DTDParser.ignoresEntityValues(new Views()));
+        Assertions.assertFalse(DTDParser.ignoresEntityValues(new DTDModelBuilder()));
+        Assertions.assertFalse(DTDParser.ignoresEntityValues(new DTDEventWriter(new ByteArrayOutputStream())));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDEventWriterTest {
+
+    private static final String DTD = "<?pi data?>\n"
+            + "<!NOTATION gif PUBLIC \"-//GIF//EN\">\n"
+            + "<!ENTITY logo SYSTEM \"logo.gif\" NDATA gif>\n"
+            + "<!ENTITY copy \"\u00a9 \u4e2d\">\n"
+            + "<!ENTITY % inline \"b | i\">\n"
+            + "<!ELEMENT p (#PCDATA | %inline;)*>\n"
+            + "<!ELEMENT list (head?, (item | p)+)>\n"
+            + "<!ATTLIST p align (left|right) \"left\" id ID #IMPLIED>\n"
+            + "<!ATTLIST p id ID #REQUIRED>\n";
+
+    // records every event with the position it is reported at
+    static final class Recorder extends DTDHandlerBase {
+        final List<String> events = new ArrayList<>();
+        private Locator locator;
+
+        @Override
+        public void setDocumentLocator(Locator loc) {
+            locator = loc;
+        }
+
+        private void add(String event) {
+            events.add(locator.getSystemId() + ":" + locator.getLineNumber() + ":"
+                    + locator.getColumnNumber() + " " + event);
+        }
+
+        @Override
+        public void startDTD(InputEntity in) {
+            add("startDTD " + in.getSystemId());
+        }
+
+        @Override
+        public void endDTD() {
+            add("endDTD");
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) {
+            add("pi " + target + " " + data);
+        }
+
+        @Override
+        public void notationDecl(String name, String publicId, String systemId) {
+            add("notation " + name + " " + publicId + " " + systemId);
+        }
+
+        @Override
+        public void unparsedEntityDecl(String name, String publicId, String systemId, String notationName) {
+            add("unparsed " + name + " " + publicId + " " + systemId + " " + notationName);
+        }
+
+        @Override
+        public void internalGeneralEntityDecl(String name, String value) {
+            add("entity " + name + " " + value);
+        }
+
+        @Override
+        public void internalParameterEntityDecl(String name, String value) {
+            add("pe " + name + " " + value);
+        }
+
+        @Override
+        public void startContentModel(String elementName, short contentModelType) {
+            add("element " + elementName + " " + contentModelType);
+        }
+
+        @Override
+        public void childElement(String elementName, short occurrence) {
+            add("child " + elementName + " " + occurrence);
+        }
+
+        @Override
+        public void mixedElement(String elementName) {
+            add("mixed " + elementName);
+        }
+
+        @Override
+        public void startModelGroup() {
+            add("(");
+        }
+
+        @Override
+        public void endModelGroup(short occurrence) {
+            add(") " + occurrence);
+        }
+
+        @Override
+        public void connector(short connectorType) {
+            add("connector " + connectorType);
+        }
+
+        @Override
+        public void attributeDecl(String elementName, String attributeName, String attributeType,
+                                  String[] enumeration, short attributeUse, String defaultValue) {
+            add("attribute " + elementName + " " + attributeName + " " + attributeType + " "
+                    + Arrays.toString(enumeration) + " " + attributeUse + " " + defaultValue);
+        }
+
+        @Override
+        public void warning(SAXParseException e) {
+            add("warning " + e.getMessage() + " " + e.getLineNumber());
+        }
+
+        @Override
+        public void error(SAXParseException e) {
+            add("error " + e.getMessage() + " " + e.getLineNumber());
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) throws SAXException {
+            add("fatal " + e.getMessage() + " " + e.getLineNumber());
+            throw e;
+        }
+    }
+
+    private static InputSource source(String dtd) {
+        InputSource in = new InputSource(new StringReader(dtd));
+        in.setSystemId("mem:/main.dtd");
+        return in;
+    }
+
+    private static byte[] write(String dtd) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DTDEventWriter writer = new DTDEventWriter(out)) {
+            DTDParser parser = new DTDParser();
+            parser.setDtdHandler(writer);
+            try {
+                parser.parse(source(dtd));
+            } catch (SAXException e) {
+                // recorded
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Recorder parsed = new Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(parsed);
+        parser.parse(source(DTD));
+
+        Recorder read = new Recorder();
+        DTDEventReader.read(new ByteArrayInputStream(write(DTD)), read);
+        Assertions.assertEquals(parsed.events, read.events);
+        Assertions.assertTrue(read.events.contains("mem:/main.dtd:4:-1 entity copy \u00a9 \u4e2d"));
+        Assertions.assertTrue(read.events.get(read.events.size() - 2).startsWith("mem:/main.dtd:9:"),
+                read.events.toString());
+    }
+
+    @Test
+    public void testFatalError() throws Exception {
+        String broken = "<!ELEMENT p EMPTY>\n<!ELEMENT q (#PCDATA";
+        Recorder parsed = new Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(parsed);
+        Assertions.assertThrows(SAXParseException.class, () -> parser.parse(source(broken)));
+
+        Recorder read = new Recorder();
+        SAXParseException e = Assertions.assertThrows(SAXParseException.class,
+                () -> DTDEventReader.read(new ByteArrayInputStream(write(broken)), read));
+        Assertions.assertEquals(parsed.events, read.events);
+        Assertions.assertEquals("mem:/main.dtd", e.getSystemId());
+        Assertions.assertEquals(2, e.getLineNumber());
+    }
+
+    @Test
+    public void testBadStream() {
+        Assertions.assertThrows(StreamCorruptedException.class,
+                () -> DTDEventReader.read(new ByteArrayInputStream("<!ELEMENT".getBytes()), new DTDHandlerBase()));
+    }
+}
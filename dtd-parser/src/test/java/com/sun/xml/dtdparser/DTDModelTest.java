@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDModelTest {
+
+    private static final String DTD = "<!ENTITY % inline 'b | i'>\n"
+            + "<!ATTLIST doc version CDATA #FIXED '1.0'>\n"
+            + "<!ELEMENT doc (head?, (p | list)+, (%inline;)*)>\n"
+            + "<!ELEMENT doc EMPTY>\n"
+            + "<!ELEMENT head (#PCDATA)>\n"
+            + "<!ELEMENT p (#PCDATA | %inline;)*>\n"
+            + "<!ELEMENT list ((item))>\n"
+            + "<!ELEMENT b ANY>\n"
+            + "<!ATTLIST p\n"
+            + "  id ID #IMPLIED\n"
+            + "  align (left | right) 'left'\n"
+            + "  id CDATA #REQUIRED\n"
+            + "  class NMTOKENS ' a  b '>\n"
+            + "<!NOTATION gif PUBLIC '-//TEST//NOTATION GIF//EN'>\n"
+            + "<!ENTITY copy '&#169;'>\n"
+            + "<!ENTITY copy 'ignored'>\n"
+            + "<!ENTITY chapter SYSTEM 'chapter.xml'>\n"
+            + "<!ENTITY logo SYSTEM 'logo.gif' NDATA gif>\n";
+
+    private static DTDModel build(DTDModelBuilder builder) throws Exception {
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(builder);
+        InputSource in = new InputSource(new StringReader(DTD));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+        return builder.getModel();
+    }
+
+    @Test
+    public void testElements() throws Exception {
+        DTDModel dtd = build(new DTDModelBuilder() {
+            @Override
+            public void error(SAXParseException e) {
+                // doc is declared twice
+            }
+        });
+        Assertions.assertEquals(List.of("doc (head?,(p|list)+,(b|i)*)", "head (#PCDATA)", "p (#PCDATA|b|i)*",
+                        "list ((item))", "b ANY"),
+                dtd.getElements().stream().map(Object::toString).collect(Collectors.toList()));
+
+        ContentModel doc = dtd.getElement("doc").getContentModel();
+        Assertions.assertEquals(DTDEventListener.CONTENT_MODEL_CHILDREN, doc.getType());
+        Assertions.assertEquals(8, doc.size());
+        Assertions.assertTrue(doc.isGroup(0));
+        Assertions.assertEquals(DTDEventListener.SEQUENCE, doc.getConnector(0));
+        Assertions.assertEquals("head", doc.getName(1));
+        Assertions.assertEquals(DTDEventListener.OCCURRENCE_ZERO_OR_ONE, doc.getOccurrence(1));
+        Assertions.assertEquals(DTDEventListener.CHOICE, doc.getConnector(2));
+        Assertions.assertEquals(DTDEventListener.OCCURRENCE_ONE_OR_MORE, doc.getOccurrence(2));
+        Assertions.assertEquals(5, doc.getEnd(2));
+        Assertions.assertEquals(8, doc.getEnd(0));
+        Assertions.assertEquals(-1, doc.getConnector(1));
+
+        ContentModel p = dtd.getElement("p").getContentModel();
+        Assertions.assertEquals(DTDEventListener.CONTENT_MODEL_MIXED, p.getType());
+        Assertions.assertEquals(3, p.size());
+        Assertions.assertEquals(DTDEventListener.CHOICE, p.getConnector(0));
+        Assertions.assertNull(dtd.getElement("b").getContentModel());
+        Assertions.assertNull(dtd.getElement("item"));
+    }
+
+    @Test
+    public void testAttributes() throws Exception {
+        DTDModel dtd = build(new DTDModelBuilder() {
+            @Override
+            public void error(SAXParseException e) {
+            }
+        });
+        DTDModel.Element p = dtd.getElement("p");
+        Assertions.assertEquals(List.of("id", "align", "class"),
+                p.getAttributes().stream().map(DTDModel.Attribute::getName).collect(Collectors.toList()));
+        Assertions.assertSame(DTDParser.TYPE_ID, p.getAttribute("id").getType());
+        Assertions.assertEquals(DTDEventListener.USE_IMPLIED, p.getAttribute("id").getUse());
+        Assertions.assertEquals(List.of("left", "right"), p.getAttribute("align").getEnumeration());
+        Assertions.assertSame(DTDParser.TYPE_ENUMERATION, p.getAttribute("align").getType());
+        Assertions.assertEquals(" a  b ", p.getAttribute("class").getDefaultValue());
+        Assertions.assertNull(p.getAttribute("missing"));
+
+        DTDModel.Element doc = dtd.getElement("doc");
+        Assertions.assertTrue(doc.isDeclared());
+        Assertions.assertEquals("1.0", doc.getAttribute("version").getDefaultValue());
+        Assertions.assertEquals(DTDEventListener.USE_FIXED, doc.getAttribute("version").getUse());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> p.getAttributes().clear());
+    }
+
+    @Test
+    public void testEntities() throws Exception {
+        DTDModelBuilder builder = new DTDModelBuilder() {
+            @Override
+            public void error(SAXParseException e) {
+            }
+        };
+        Assertions.assertThrows(IllegalStateException.class, builder::getModel);
+        DTDModel dtd = build(builder);
+        Assertions.assertEquals(List.of("copy", "chapter", "logo"),
+                dtd.getEntities().stream().map(DTDModel.Entity::getName).collect(Collectors.toList()));
+        Assertions.assertEquals("\u00a9", dtd.getEntity("copy").getValue());
+        Assertions.assertTrue(dtd.getEntity("copy").isInternal());
+        Assertions.assertFalse(dtd.getEntity("chapter").isInternal());
+        Assertions.assertFalse(dtd.getEntity("chapter").isUnparsed());
+        Assertions.assertEquals("gif", dtd.getEntity("logo").getNotationName());
+        Assertions.assertNull(dtd.getEntity("lt"));
+        Assertions.assertTrue(dtd.getParameterEntities().isEmpty());
+
+        DTDModel.Notation gif = dtd.getNotation("gif");
+        Assertions.assertEquals("-//TEST//NOTATION GIF//EN", gif.getPublicId());
+        Assertions.assertNull(gif.getSystemId());
+        Assertions.assertEquals(List.of(gif), dtd.getNotations());
+
+        // the builder is reused, the model isn't changed
+        DTDModel again = build(builder);
+        Assertions.assertNotSame(dtd, again);
+        Assertions.assertEquals(dtd.toString(), again.toString());
+        Assertions.assertEquals(3, dtd.getEntities().size());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDParserFeedTest {
+
+    private static final String DTD = "<?xml version='1.0' encoding='UTF-8'?>\n"
+            + "<!-- a comment with > and ' in it -->\n"
+            + "<?pi data with > in it?>\n"
+            + "<!ENTITY % draft 'INCLUDE'>\n"
+            + "<!ENTITY % final \"IGNORE\">\n"
+            + "<!ENTITY % decls '<!ELEMENT fromPE EMPTY>'>\n"
+            + "%decls;\n"
+            + "<!ENTITY gt2 \">>\">\n"
+            + "<!ENTITY quote '\"'>\n"
+            + "<!ELEMENT doc (title, (para | note)*)>\n"
+            + "<!ATTLIST doc lang CDATA \"en > fr\" id ID #IMPLIED>\n"
+            + "<![%draft;[\n"
+            + "  <!ELEMENT note (#PCDATA)>\n"
+            + "  <![ IGNORE [ <!ELEMENT x 'it's \"<![\" ]]> ]]>\n"
+            + "  <!ENTITY ending ']]>'>\n"
+            + "]]>\n"
+            + "<![%final;[ <!ELEMENT note EMPTY> <![ <!-- ]]> ]]>\n"
+            + "<!ELEMENT title (#PCDATA)>\r\n"
+            + "<!ELEMENT para (#PCDATA | \u00e9l\u00e9ment | \u6bb5\u843d)*>\r\n"
+            + "<!ELEMENT \u00e9l\u00e9ment EMPTY>\n"
+            + "<!ELEMENT \u6bb5\u843d EMPTY>\n"
+            + "<!NOTATION gif SYSTEM 'image/gif'>\n";
+
+    private static InputSource source(byte[] content) {
+        InputSource in = new InputSource(new ByteArrayInputStream(content));
+        in.setSystemId("mem:/main.dtd");
+        return in;
+    }
+
+    private static List<String> parse(byte[] content) throws Exception {
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(recorder);
+        parser.parse(source(content));
+        return recorder.events;
+    }
+
+    private static List<String> feed(byte[] content, int chunk) throws Exception {
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(recorder);
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        for (int i = 0; i < content.length; i += chunk) {
+            parser.feed(ByteBuffer.wrap(content, i, Math.min(chunk, content.length - i)));
+        }
+        parser.endOfInput();
+        return recorder.events;
+    }
+
+    private static void assertSameAsParse(byte[] content) throws Exception {
+        List<String> expected = parse(content);
+        for (int chunk : new int[]{1, 2, 3, 7, 64, content.length + 1}) {
+            Assertions.assertEquals(expected, feed(content, chunk), "chunk " + chunk);
+        }
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        byte[] content = DTD.getBytes(StandardCharsets.UTF_8);
+        List<String> events = parse(content);
+        Assertions.assertTrue(events.contains("mem:/main.dtd:7:-1 element fromPE 0"), events.toString());
+        Assertions.assertTrue(events.contains("mem:/main.dtd:13:-1 element note 2"), events.toString());
+        Assertions.assertTrue(events.contains("mem:/main.dtd:15:-1 entity ending ]]>"), events.toString());
+        Assertions.assertTrue(events.contains("mem:/main.dtd:23:-1 endDTD"), events.toString());
+        assertSameAsParse(content);
+    }
+
+    @Test
+    public void testEncodings() throws Exception {
+        String dtd = DTD.substring(DTD.indexOf('\n') + 1);
+        for (Charset cs : new Charset[]{StandardCharsets.UTF_16, StandardCharsets.UTF_16LE}) {
+            assertSameAsParse(("<?xml version='1.0' encoding='UTF-16'?>\n" + dtd).getBytes(cs));
+        }
+        assertSameAsParse(("<?xml version='1.0' encoding='ISO-8859-1'?>\n<!ENTITY e '\u00e9'>\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        assertSameAsParse(dtd.getBytes(StandardCharsets.UTF_8));
+        assertSameAsParse(new byte[0]);
+    }
+
+    @Test
+    public void testIncrementalSections() throws Exception {
+        // sections whose keyword is a PE don't hold back what follows
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(recorder);
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        String[] chunks = {
+            "<!ENTITY % draft 'INCLUDE'>\n<!ENTITY % final 'IGNORE'>\n",
+            "<![%draft;[ <!ELEMENT a EMPTY> ]]>\n",
+            "<![ %final; [ <!ELEMENT x EMPTY> ]]>\n",
+            "<!ELEMENT b EMPTY>\n",
+        };
+        for (String chunk : chunks) {
+            parser.feed(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        }
+        Assertions.assertEquals(List.of("mem:/main.dtd:1:-1 startDTD mem:/main.dtd",
+                "mem:/main.dtd:3:-1 element a 0",
+                "mem:/main.dtd:5:-1 element b 0"), recorder.events);
+        parser.endOfInput();
+        Assertions.assertEquals("mem:/main.dtd:6:-1 endDTD", recorder.events.get(recorder.events.size() - 1));
+    }
+
+    @Test
+    public void testIncremental() throws Exception {
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(recorder);
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        parser.feed(ByteBuffer.wrap("<!ELEMENT a EMPTY>\n<!ELEMENT b (a".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(List.of("mem:/main.dtd:1:-1 startDTD mem:/main.dtd",
+                "mem:/main.dtd:1:-1 element a 0"), recorder.events);
+
+        parser.feed(ByteBuffer.wrap(")*>".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(6, recorder.events.size(), recorder.events.toString());
+        parser.endOfInput();
+        Assertions.assertEquals("mem:/main.dtd:2:-1 endDTD", recorder.events.get(recorder.events.size() - 1));
+        Assertions.assertThrows(IllegalStateException.class, parser::endOfInput);
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        DTDParser parser = new DTDParser();
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> parser.feed(ByteBuffer.allocate(1)));
+
+        // cut short
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        parser.feed(ByteBuffer.wrap("<!ELEMENT a EMPTY>\n<!ELEMENT b".getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertThrows(SAXParseException.class, parser::endOfInput);
+
+        // reported as soon as the declaration is complete
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        Assertions.assertThrows(SAXParseException.class,
+                () -> parser.feed(ByteBuffer.wrap("<!ELEMENT a WHATEVER>".getBytes(StandardCharsets.UTF_8))));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> parser.feed(ByteBuffer.allocate(1)));
+
+        // bad bytes
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        SAXParseException e = Assertions.assertThrows(SAXParseException.class,
+                () -> parser.feed(ByteBuffer.wrap(new byte[]{'<', '!', '-', '-', (byte) 0xff, '-', '-', '>'})));
+        Assertions.assertTrue(e.getMessage().contains("UTF-8"), e.getMessage());
+    }
+}
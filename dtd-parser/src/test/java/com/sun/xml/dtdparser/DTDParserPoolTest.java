@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDParserPoolTest {
+
+    private static final String DTD = "<!ENTITY % inline \"b | i\">\n"
+            + "<!ELEMENT p (#PCDATA | %inline;)*>\n"
+            + "<!ELEMENT b (#PCDATA)>\n"
+            + "<!ELEMENT i (#PCDATA)>\n"
+            + "<!ATTLIST p id ID #IMPLIED>\n";
+
+    private static List<String> parse(DTDParserPool pool) throws Exception {
+        List<String> elements = new ArrayList<>();
+        pool.parse(new InputSource(new StringReader(DTD)), new DTDHandlerBase() {
+            @Override
+            public void startContentModel(String elementName, short contentModelType) throws SAXException {
+                elements.add(elementName);
+            }
+        });
+        return elements;
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        DTDParserPool pool = new DTDParserPool(2, null);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(List.of("p", "b", "i"), parse(pool));
+        }
+        Assertions.assertEquals(1, pool.getSize());
+        Assertions.assertEquals(1, pool.getIdleCount());
+        Assertions.assertEquals(1L, pool.getMissCount());
+        Assertions.assertEquals(4L, pool.getHitCount());
+        Assertions.assertEquals(0L, pool.getWaitCount());
+    }
+
+    @Test
+    public void testReleasedParserIsReset() throws Exception {
+        DTDParserPool pool = new DTDParserPool(1, null);
+        DTDParser parser = pool.borrow();
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.parse(new InputSource(new StringReader(DTD)));
+        pool.release(parser);
+
+        DTDParser again = pool.borrow();
+        Assertions.assertSame(parser, again);
+        Assertions.assertNull(again.getDtdHandler());
+        Assertions.assertNull(again.getEntityResolver());
+        pool.release(again);
+    }
+
+    @Test
+    public void testReleaseChecked() throws Exception {
+        DTDParserPool pool = new DTDParserPool(2, null);
+        DTDParser parser = pool.borrow();
+        pool.release(parser);
+        Assertions.assertThrows(IllegalStateException.class, () -> pool.release(parser));
+        Assertions.assertThrows(IllegalStateException.class, () -> pool.release(new DTDParser()));
+        pool.release(null);
+
+        // the parser went back once: the next two are different ones
+        DTDParser first = pool.borrow();
+        DTDParser second = pool.borrow();
+        Assertions.assertSame(parser, first);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, pool.getSize());
+        pool.release(first);
+        pool.release(second);
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        DTDParserPool pool = new DTDParserPool(2, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> parse(pool)));
+            }
+            for (Future<List<String>> f : results) {
+                Assertions.assertEquals(List.of("p", "b", "i"), f.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertTrue(pool.getSize() <= 2);
+        Assertions.assertEquals(pool.getSize(), pool.getIdleCount());
+        Assertions.assertEquals(200L, pool.getHitCount() + pool.getMissCount());
+    }
+
+    @Test
+    public void testFailedParseReturnsParser() throws Exception {
+        DTDParserPool pool = new DTDParserPool(1, null);
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        Assertions.assertThrows(SAXException.class, () -> pool.parse(
+                new InputSource(new StringReader("<!ELEMENT p (#PCDATA")), new DTDHandlerBase() {
+                    @Override
+                    public void fatalError(SAXParseException e) throws SAXException {
+                        errors.add(e.getMessage());
+                        throw e;
+                    }
+                }));
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(1, pool.getIdleCount());
+        Assertions.assertEquals(List.of("p", "b", "i"), parse(pool));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDParserPrefetchTest {
+
+    // records which entities were resolved, and on which threads
+    private static final class Tracker extends Resolver {
+        final Set<String> resolved = ConcurrentHashMap.newKeySet();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public InputSource resolveEntity(String publicId, String systemId) throws IOException {
+            resolved.add(systemId.substring(systemId.lastIndexOf('/') + 1));
+            threads.add(Thread.currentThread());
+            return super.resolveEntity(publicId, systemId);
+        }
+    }
+
+    private static Path dir() throws IOException {
+        Path dir = Files.createTempDirectory("prefetch");
+        write(dir, "main.dtd", "<!ENTITY % a SYSTEM 'a.mod'>\n"
+                + "<!ENTITY % b PUBLIC '-//TEST//B\n  MODULE//EN' \"mods/b.mod\">\n"
+                + "<![IGNORE[ <!ENTITY % missing SYSTEM 'missing.mod'> %missing; ]]>\n"
+                + "%a;\n%b;\n"
+                + "<!ELEMENT doc (a | b | c)*>\n");
+        write(dir, "a.mod", "<!ELEMENT a EMPTY>\n");
+        Files.createDirectory(dir.resolve("mods"));
+        write(dir, "mods/b.mod", "<!ENTITY % c SYSTEM 'c.mod'>\n<!ELEMENT b EMPTY>\n%c;\n");
+        write(dir, "mods/c.mod", "<!ELEMENT c EMPTY>\n");
+        return dir;
+    }
+
+    private static void write(Path dir, String name, String text) throws IOException {
+        File file = dir.resolve(name).toFile();
+        file.deleteOnExit();
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> parse(Path main, Tracker resolver, ExecutorService executor)
+            throws IOException, SAXException {
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(recorder);
+        parser.setEntityResolver(resolver);
+        parser.setPrefetchExecutor(executor);
+        parser.parse(Resolver.createInputSource(main.toFile()));
+        return recorder.events;
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        Path main = dir().resolve("main.dtd");
+        Tracker serial = new Tracker();
+        List<String> expected = parse(main, serial, null);
+        Assertions.assertEquals(Set.of("a.mod", "b.mod", "c.mod"), serial.resolved);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Tracker tracker = new Tracker();
+            Assertions.assertEquals(expected, parse(main, tracker, executor));
+            Assertions.assertTrue(tracker.resolved.containsAll(serial.resolved), tracker.resolved.toString());
+        } finally {
+            executor.shutdown();
+        }
+
+        // each read done on another thread before the parser needs it
+        Tracker tracker = new Tracker();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.setEntityResolver(tracker);
+        parser.setPrefetchExecutor(task -> {
+            Thread thread = new Thread(task);
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        parser.parse(Resolver.createInputSource(main.toFile()));
+        // including what's never used
+        Assertions.assertEquals(Set.of("a.mod", "b.mod", "c.mod", "missing.mod"), tracker.resolved);
+        Assertions.assertEquals(4, tracker.threads.size());
+        Assertions.assertFalse(tracker.threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        Path dir = dir();
+        Files.delete(dir.resolve("mods/c.mod"));
+        Path main = dir.resolve("main.dtd");
+        Exception serial = Assertions.assertThrows(Exception.class,
+                () -> parse(main, new Tracker(), null));
+
+        // rejected tasks are run by the parser
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        Exception e = Assertions.assertThrows(Exception.class,
+                () -> parse(main, new Tracker(), executor));
+        Assertions.assertEquals(serial.getClass(), e.getClass());
+        Assertions.assertEquals(serial.getMessage(), e.getMessage());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        Path dir = dir();
+        write(dir, "stale.mod", "<!ELEMENT stale EMPTY>\n");
+        write(dir, "fresh.mod", "<!ELEMENT fresh EMPTY>\n");
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(new DTDHandlerBase());
+        parser.setEntityResolver((publicId, systemId) ->
+                Resolver.createInputSource(dir.resolve("stale.mod").toFile()));
+        parser.setPrefetchExecutor(Runnable::run);
+        parser.startFeed(new InputSource("mem:/main.dtd"));
+        parser.feed(ByteBuffer.wrap("<!ENTITY % m SYSTEM 'm.mod'>\n".getBytes(StandardCharsets.UTF_8)));
+
+        // what was fetched for the unfinished feed isn't read again
+        parser.reset();
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        parser.setDtdHandler(recorder);
+        parser.setEntityResolver((publicId, systemId) ->
+                Resolver.createInputSource(dir.resolve("fresh.mod").toFile()));
+        InputSource in = new InputSource(new StringReader("<!ENTITY % m SYSTEM 'm.mod'>\n%m;\n"));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+        String events = String.join("\n", recorder.events);
+        Assertions.assertTrue(events.contains("element fresh"), events);
+        Assertions.assertFalse(events.contains("element stale"), events);
+    }
+}
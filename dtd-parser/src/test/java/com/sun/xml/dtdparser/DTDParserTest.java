@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DTDParserTest {
+
+    private static final String DTD = "<!ENTITY % mod SYSTEM 'mod.ent'>\n"
+            + "%mod;\n"
+            + "<!ENTITY e 'second'>\n"
+            + "<!ELEMENT doc (a | b)*>\n"
+            + "<!ATTLIST doc id ID #IMPLIED kind (x|y) 'x'>\n";
+
+    private final Map<String, File> modules = new HashMap<>();
+
+    DTDParserTest() throws IOException {
+        module("mod.ent", "<!ELEMENT a (#PCDATA)>\n<!ELEMENT b EMPTY>\n");
+        // fails half way through, after declaring what the next parse
+        // declares again
+        module("bad.ent", "<!ENTITY e 'first'>\n<!ELEMENT doc EMPTY>\n"
+                + "<!ATTLIST doc id ID #IMPLIED>\n<!ELEMENT a WHATEVER>\n<!ELEMENT z EMPTY>\n");
+    }
+
+    private void module(String name, String text) throws IOException {
+        File file = File.createTempFile("module", ".ent");
+        file.deleteOnExit();
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        modules.put("mem:/" + name, file);
+    }
+
+    private List<String> parse(DTDParser parser, String dtd) throws IOException, SAXException {
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        parser.setDtdHandler(recorder);
+        parser.setEntityResolver((publicId, systemId) -> Resolver.createInputSource(modules.get(systemId)));
+        InputSource in = new InputSource(new StringReader(dtd));
+        in.setSystemId("mem:/main.dtd");
+        parser.parse(in);
+        return recorder.events;
+    }
+
+    @Test
+    public void testParseTwice() throws Exception {
+        DTDParser parser = new DTDParser();
+        List<String> first = parse(parser, DTD);
+        Assertions.assertEquals(first, parse(parser, DTD));
+        Assertions.assertEquals(first, parse(new DTDParser(), DTD));
+        Assertions.assertTrue(first.contains("mem:/main.dtd:3:-1 entity e second"), first.toString());
+    }
+
+    @Test
+    public void testParseAfterFailure() throws Exception {
+        List<String> expected = parse(new DTDParser(), DTD);
+
+        DTDParser parser = new DTDParser();
+        SAXParseException e = Assertions.assertThrows(SAXParseException.class,
+                () -> parse(parser, "<!ENTITY % bad SYSTEM 'bad.ent'>\n%bad;\n"));
+        Assertions.assertTrue(e.getSystemId().endsWith(modules.get("mem:/bad.ent").getName()), e.getSystemId());
+        Assertions.assertEquals(4, e.getLineNumber());
+
+        // nothing declared before the failure is left over
+        Assertions.assertEquals(expected, parse(parser, DTD));
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        // the names of the elements, as reported
+        List<String> names = new ArrayList<>();
+        DTDHandlerBase handler = new DTDHandlerBase() {
+            @Override
+            public void startContentModel(String elementName, short contentModelType) {
+                names.add(elementName);
+            }
+        };
+
+        DTDParser parser = new DTDParser();
+        for (int run = 0; run < 2; run++) {
+            parser.setDtdHandler(handler);
+            parser.setEntityResolver((publicId, systemId) -> Resolver.createInputSource(modules.get(systemId)));
+            InputSource in = new InputSource(new StringReader(DTD));
+            in.setSystemId("mem:/main.dtd");
+            parser.parse(in);
+
+            parser.reset();
+            Assertions.assertNull(parser.getDtdHandler());
+            Assertions.assertNull(parser.getEntityResolver());
+        }
+
+        // the name cache is kept: the second parse scans the same
+        // names into the same strings
+        Assertions.assertEquals(List.of("a", "b", "doc", "a", "b", "doc"), names);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertSame(names.get(i), names.get(i + 3));
+        }
+        // while the handler isn't
+        parser.parse(new InputSource(new StringReader("<!ELEMENT c EMPTY>\n")));
+        Assertions.assertEquals(6, names.size());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InputEntityTest {
+
+    private static String dtd() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb.append("<!ELEMENT e").append(i).append(" (#PCDATA | b | i)*>\r\n")
+                    .append("<!ATTLIST e").append(i).append(" a").append(i)
+                    .append(" CDATA \"value \u00e9\u4e2d ").append(i).append("\">\n")
+                    .append("<![IGNORE[ <!ELEMENT x").append(i).append(" EMPTY> ]]>\n");
+        }
+        return sb.toString();
+    }
+
+    private static List<String> parse(InputSource in, int bufferSize) throws Exception {
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        if (bufferSize > 0) {
+            parser.setBufferSize(bufferSize);
+        }
+        parser.setDtdHandler(recorder);
+        parser.parse(in);
+        return recorder.events;
+    }
+
+    private static InputSource stream(byte[] content) {
+        InputSource in = new InputSource(new ByteArrayInputStream(content));
+        in.setSystemId("mem:/main.dtd");
+        return in;
+    }
+
+    @Test
+    public void testBufferSizes() throws Exception {
+        byte[] content = dtd().getBytes(StandardCharsets.UTF_8);
+        List<String> expected = parse(stream(content), 0);
+        Assertions.assertEquals(8002, expected.size());
+
+        Assertions.assertEquals(expected, parse(stream(content), 64));
+        Assertions.assertEquals(expected, parse(stream(content), 100_000));
+
+        // read whole, sized to fit
+        File file = File.createTempFile("dtd", ".dtd");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+        InputSource in = Resolver.createInputSource(file);
+        in.setSystemId("mem:/main.dtd");
+        Assertions.assertEquals(expected, parse(in, 64));
+    }
+
+    @Test
+    public void testNamesAcrossRefills() throws Exception {
+        StringBuilder name = new StringBuilder("n");
+        while (name.length() < 300) {
+            name.append("ame.").append(name.length());
+        }
+        String dtd = "<!ELEMENT " + name + " (a" + name + " | b)*>\n"
+                + "<!ATTLIST " + name + " " + name + " CDATA #IMPLIED>\n";
+        List<String> events = parse(stream(dtd.getBytes(StandardCharsets.UTF_8)), 64);
+        Assertions.assertEquals(parse(stream(dtd.getBytes(StandardCharsets.UTF_8)), 0), events);
+        Assertions.assertTrue(events.contains("mem:/main.dtd:1:-1 child a" + name + " 3"), events.toString());
+        Assertions.assertTrue(events.contains("mem:/main.dtd:2:-1 attribute " + name + " " + name
+                + " CDATA null 1 null"), events.toString());
+    }
+
+    @Test
+    public void testParameterEntities() throws Exception {
+        String dtd = "<!ENTITY % inline 'b | i'>\n"
+                + "<!ENTITY % mixed '(#PCDATA | %inline;)*'>\n"
+                + "<!ENTITY % open '<!ELEMENT d'>\n"
+                + "<!ELEMENT a %mixed;>\n"
+                + "<!ELEMENT c (%inline;|%inline;)>\n"
+                + "%open; EMPTY>\n";
+        DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+        DTDParser parser = new DTDParser();
+        parser.setDtdHandler(recorder);
+        parser.parse(stream(dtd.getBytes(StandardCharsets.UTF_8)));
+        List<String> events = List.copyOf(recorder.events);
+        Assertions.assertEquals(List.of("startDTD mem:/main.dtd", "element a 2", "mixed b", "mixed i",
+                "element c 3", "(", "child b 3", "connector 0", "child i 3", "connector 0",
+                "child b 3", "connector 0", "child i 3", ") 3", "element d 0"),
+                events.subList(0, 15).stream().map(e -> e.substring(e.indexOf(' ') + 1)).collect(Collectors.toList()));
+        // the declaration doesn't end in the entity it starts in
+        Assertions.assertTrue(events.get(15).startsWith("mem:/main.dtd:6:-1 error "), events.toString());
+
+        // again, with the spare padding entities of the first parse gone
+        recorder.events.clear();
+        parser.parse(stream(dtd.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(events, recorder.events);
+    }
+
+    @Test
+    public void testIgnoredSections() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            // delimiters at every offset from a refill
+            sb.append("<![IGNORE[").append("x".repeat(i % 7))
+                    .append("<![ %p; <![INCLUDE[ ]] ]>]]]]> ]]\r\n<!\n<!-- \ud83d\ude00 -->]]> ]]>\r\n")
+                    .append("<!ELEMENT e").append(i).append(" EMPTY>\n");
+        }
+        byte[] content = sb.toString().getBytes(StandardCharsets.UTF_8);
+        List<String> expected = parse(stream(content), 0);
+        Assertions.assertEquals(202, expected.size());
+        Assertions.assertEquals("mem:/main.dtd:" + (4 * 199 + 4) + ":-1 element e199 0", expected.get(200));
+        Assertions.assertEquals(expected, parse(stream(content), 64));
+        Assertions.assertEquals(expected, parse(stream(content), 67));
+
+        // within an internal PE, which it can't go past
+        String dtd = "<!ENTITY % ignored '<![IGNORE[ <![ ]]> ]]>'>\n%ignored;\n<!ELEMENT a EMPTY>\n";
+        Assertions.assertTrue(parse(stream(dtd.getBytes(StandardCharsets.UTF_8)), 0)
+                .contains("mem:/main.dtd:3:-1 element a 0"));
+        String open = "<!ENTITY % open '<![IGNORE[ <![ ]]>'>\n%open; ]]>\n";
+        Assertions.assertThrows(SAXParseException.class, () -> parse(stream(open.getBytes(StandardCharsets.UTF_8)), 0));
+
+        String illegal = "<![IGNORE[ \u0001 ]]>";
+        Assertions.assertThrows(SAXParseException.class, () -> parse(stream(illegal.getBytes(StandardCharsets.UTF_8)), 0));
+        String unpaired = "<![IGNORE[ \ud83d ]]>";
+        Assertions.assertThrows(SAXParseException.class, () -> parse(stream(unpaired.getBytes(StandardCharsets.UTF_16BE)), 0));
+    }
+
+    @Test
+    public void testBufferSizeLimit() {
+        DTDParser parser = new DTDParser();
+        Assertions.assertEquals(8 * 1024, parser.getBufferSize());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.setBufferSize(10));
+        parser.setBufferSize(1 << 20);
+        Assertions.assertEquals(1 << 20, parser.getBufferSize());
+        parser.reset();
+        Assertions.assertEquals(8 * 1024, parser.getBufferSize());
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InternalEntityTest {
+
+    private static char[] share(String s) {
+        return InternalEntity.share(new TextBuffer().append(s));
+    }
+
+    @Test
+    public void testShare() {
+        char[] eacute = share("&#x00E9;");
+        Assertions.assertArrayEquals("&#x00E9;".toCharArray(), eacute);
+        Assertions.assertSame(eacute, share("&#x00E9;"));
+        Assertions.assertNotSame(eacute, share("&#x00E8;"));
+        Assertions.assertSame(share(""), share(""));
+
+        // a prefix isn't the same text
+        TextBuffer longer = new TextBuffer().append("&#x00E9;;");
+        Assertions.assertArrayEquals("&#x00E9;;".toCharArray(), InternalEntity.share(longer));
+
+        String big = "x".repeat(InternalEntity.MAX_SHARED + 1);
+        Assertions.assertArrayEquals(big.toCharArray(), share(big));
+        Assertions.assertNotSame(share(big), share(big));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class NameCacheTest {
+
+    @Test
+    public void testSameNameSameString() {
+        DTDParser.NameCache cache = new DTDParser.NameCache();
+        char[] buf = "xx:para yy".toCharArray();
+        String para = cache.lookup(buf, 7);
+        Assertions.assertEquals("xx:para", para);
+        Assertions.assertSame(para, cache.lookup("xx:para".toCharArray(), 7));
+        Assertions.assertSame(para, cache.lookup(buf, 0, 7, "xx:para".hashCode()));
+        Assertions.assertEquals("xx", cache.lookup(buf, 2));
+        Assertions.assertSame(para, cache.lookup("<xx:para>".toCharArray(), 1, 7, "xx:para".hashCode()));
+        Assertions.assertEquals("yy", cache.lookup(buf, 8, 2, "yy".hashCode()));
+        Assertions.assertEquals(3, cache.size);
+    }
+
+    @Test
+    public void testGrowth() {
+        DTDParser.NameCache cache = new DTDParser.NameCache();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            char[] name = ("n" + i).toCharArray();
+            names.add(cache.lookup(name, name.length));
+        }
+        Assertions.assertEquals(5000, cache.size);
+        Assertions.assertTrue(cache.names.length >= 10000);
+        for (int i = 0; i < 5000; i++) {
+            char[] name = ("n" + i).toCharArray();
+            Assertions.assertSame(names.get(i), cache.lookup(name, name.length));
+        }
+        // "Aa" and "BB" have the same hash
+        Assertions.assertEquals("Aa", cache.lookup("Aa".toCharArray(), 2));
+        Assertions.assertEquals("BB", cache.lookup("BB".toCharArray(), 2));
+
+        cache.clear();
+        Assertions.assertEquals(0, cache.size);
+        Assertions.assertEquals(DTDParser.NameCache.INITIAL_CAPACITY, cache.names.length);
+        Assertions.assertNotSame(names.get(0), cache.lookup("n0".toCharArray(), 2));
+    }
+
+    @Test
+    public void testSeeded() {
+        DTDParser.NameCache cache = new DTDParser.NameCache();
+        String amp = new String("amp");
+        Assertions.assertSame(amp, cache.lookup(amp));
+        Assertions.assertSame(amp, cache.lookup("amp".toCharArray(), 3));
+        Assertions.assertSame(amp, cache.lookup("amp"));
+        String lt = cache.lookup("lt".toCharArray(), 2);
+        Assertions.assertSame(lt, cache.lookup(new String("lt")));
+        Assertions.assertEquals(2, cache.size);
+    }
+
+    @Test
+    public void testPredefinedEntities() throws Exception {
+        // the predefined entities are found by the names scanned, parse
+        // after parse, and keep their first definition
+        String dtd = "<!ELEMENT a EMPTY>\n"
+                + "<!ATTLIST a b CDATA \"x &amp; y &lt;z&gt; &quot;&apos;\">\n"
+                + "<!ENTITY amp '&#38;#38;'>\n";
+        DTDParser parser = new DTDParser();
+        for (int run = 0; run < 2; run++) {
+            DTDEventWriterTest.Recorder recorder = new DTDEventWriterTest.Recorder();
+            parser.setDtdHandler(recorder);
+            InputSource in = new InputSource(new StringReader(dtd));
+            in.setSystemId("mem:/main.dtd");
+            parser.parse(in);
+            Assertions.assertEquals(List.of("mem:/main.dtd:1:-1 startDTD mem:/main.dtd",
+                    "mem:/main.dtd:1:-1 element a 0",
+                    "mem:/main.dtd:2:-1 attribute a b CDATA null 0 x & y <z> \"'",
+                    "mem:/main.dtd:3:-1 warning Using original entity definition for \"&amp;\" 3",
+                    "mem:/main.dtd:4:-1 endDTD"), recorder.events);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TextBufferTest {
+
+    private static String normalize(String s) {
+        TextBuffer buffer = new TextBuffer(4);
+        buffer.append(s);
+        buffer.normalizeSpace();
+        return buffer.toString();
+    }
+
+    @Test
+    public void testAppend() {
+        TextBuffer buffer = new TextBuffer(2);
+        buffer.append('a').append("bcdef").append(new char[]{'x', 'g', 'h', 'x'}, 1, 2);
+        Assertions.assertEquals("abcdefgh", buffer.toString());
+        Assertions.assertEquals(8, buffer.length());
+        Assertions.assertEquals('h', buffer.charAt(7));
+        Assertions.assertEquals("cde", buffer.subSequence(2, 5).toString());
+        Assertions.assertArrayEquals("abcdefgh".toCharArray(), buffer.toCharArray());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> buffer.charAt(8));
+
+        int capacity = buffer.capacity();
+        buffer.clear();
+        Assertions.assertEquals("", buffer.toString());
+        Assertions.assertEquals(capacity, buffer.capacity());
+    }
+
+    @Test
+    public void testNormalizeSpace() {
+        Assertions.assertEquals("", normalize(""));
+        Assertions.assertEquals("", normalize(" \t\r\n "));
+        Assertions.assertEquals("a", normalize("a"));
+        Assertions.assertEquals("a b c", normalize("  a \t\r\n b c\n"));
+        Assertions.assertEquals("-//A//DTD B//EN", normalize("-//A//DTD\n   B//EN"));
+        Assertions.assertEquals("a  b", normalize("a   b"));
+    }
+}
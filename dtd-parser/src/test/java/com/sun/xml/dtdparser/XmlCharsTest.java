@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class XmlCharsTest {
+
+    @Test
+    public void testFlags() {
+        for (int i = 0; i <= Character.MAX_VALUE; i++) {
+            char c = (char) i;
+            String hex = Integer.toHexString(i);
+            // the table must agree with the rules it was built from
+            Assertions.assertEquals(XmlChars.letter(c), XmlChars.isLetter(c), hex);
+            Assertions.assertEquals(XmlChars.nameChar(c), XmlChars.isNameChar(c), hex);
+            Assertions.assertEquals(XmlChars.letter(c) || c == '_' || c == ':', XmlChars.isNameStart(c), hex);
+        }
+    }
+
+    @Test
+    public void testClasses() {
+        Assertions.assertTrue(XmlChars.isLetter('a'));
+        Assertions.assertTrue(XmlChars.isLetter('\u00e9'));
+        Assertions.assertTrue(XmlChars.isLetter('\u4e2d'));
+        Assertions.assertFalse(XmlChars.isLetter('/'));
+        Assertions.assertFalse(XmlChars.isLetter('_'));
+        Assertions.assertFalse(XmlChars.isLetter('1'));
+        Assertions.assertFalse(XmlChars.isLetter('\ud800'));
+
+        Assertions.assertTrue(XmlChars.isNameStart('_'));
+        Assertions.assertTrue(XmlChars.isNameStart(':'));
+        Assertions.assertFalse(XmlChars.isNameStart('-'));
+        Assertions.assertFalse(XmlChars.isNameStart('\u0300'));
+
+        Assertions.assertTrue(XmlChars.isNameChar('-'));
+        Assertions.assertTrue(XmlChars.isNameChar('.'));
+        Assertions.assertTrue(XmlChars.isNameChar('7'));
+        Assertions.assertTrue(XmlChars.isNameChar('\u0300'));
+        Assertions.assertTrue(XmlChars.isNameChar('\u00b7'));
+        Assertions.assertFalse(XmlChars.isNameChar('>'));
+        Assertions.assertFalse(XmlChars.isNameChar(' '));
+        Assertions.assertFalse(XmlChars.isNCNameChar(':'));
+        Assertions.assertTrue(XmlChars.isNCNameChar('a'));
+    }
+}
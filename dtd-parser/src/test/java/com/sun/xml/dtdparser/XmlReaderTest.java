@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package com.sun.xml.dtdparser;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharConversionException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.xml.sax.InputSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class XmlReaderTest {
+
+    private static final String TEXT = "<!ENTITY copy \"\u00a9\">\n"
+            + "<!ENTITY \u6bb5\u843d \"\u6587\u66f8 \ud83d\ude00\">\n";
+
+    private static File file(byte[] content) throws IOException {
+        File file = File.createTempFile("dtd", ".dtd");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static String read(Reader r) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[7];
+        try (r) {
+            for (int len; (len = r.read(buf, 0, buf.length)) >= 0; ) {
+                sb.append(buf, 0, len);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameAsStream(byte[] content) throws IOException {
+        String streamed = read(XmlReader.createReader(new ByteArrayInputStream(content)));
+        Assertions.assertEquals(streamed, read(XmlReader.createReader(file(content))));
+    }
+
+    @Test
+    public void testUtf8File() throws Exception {
+        byte[] content = TEXT.getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals(TEXT, read(XmlReader.createReader(file(content))));
+        assertSameAsStream(content);
+    }
+
+    @Test
+    public void testEncodingDecl() throws Exception {
+        assertSameAsStream(("<?xml version='1.0' encoding='ISO-8859-1'?>\n" + "<!ENTITY e \"\u00e9\">\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        assertSameAsStream(("<?xml version='1.0' encoding='US-ASCII'?>\n" + "<!ENTITY e \"e\">\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        assertSameAsStream(TEXT.getBytes(StandardCharsets.UTF_16));
+        assertSameAsStream(new byte[0]);
+    }
+
+    @Test
+    public void testPartialCharacter() throws Exception {
+        byte[] content = TEXT.getBytes(StandardCharsets.UTF_8);
+        // cut the last character, a four byte sequence, in half
+        int end = content.length - "\">\n".length() - 2;
+        byte[] cut = new byte[end];
+        System.arraycopy(content, 0, cut, 0, end);
+        Assertions.assertThrows(CharConversionException.class, () -> read(XmlReader.createReader(file(cut))));
+    }
+
+    @Test
+    public void testResolver() throws Exception {
+        File file = file(TEXT.getBytes(StandardCharsets.UTF_8));
+        InputSource in = new Resolver().resolveEntity("-//TEST//EN", file.toURI().toString());
+        Assertions.assertEquals(file.toURI().toString(), in.getSystemId());
+        Assertions.assertEquals("-//TEST//EN", in.getPublicId());
+        Assertions.assertEquals(TEXT, read(in.getCharacterStream()));
+
+        in = Resolver.createInputSource(file.toURI().toURL(), true);
+        Assertions.assertEquals(TEXT, read(in.getCharacterStream()));
+    }
+
+    @Test
+    public void testAsciiRuns() throws Exception {
+        // non-ASCII characters at every offset around word and buffer boundaries
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 3 * 8192; i++) {
+            sb.append("<!ELEMENT e x>".substring(0, i % 14)).append(i % 3 == 0 ? "\u00e9" : "\ud83d\ude00");
+        }
+        String text = sb.toString();
+        byte[] content = text.getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals(text, read(new XmlReader.Utf8Reader(new ByteArrayInputStream(content))));
+        Assertions.assertEquals(text, read(XmlReader.createReader(file(content))));
+
+        String ascii = text.replace("\u00e9", "e").replace("\ud83d\ude00", "");
+        Assertions.assertEquals(ascii, read(new XmlReader.AsciiReader(
+                new ByteArrayInputStream(ascii.getBytes(StandardCharsets.US_ASCII)))));
+    }
+
+    @Test
+    public void testIllegalAscii() {
+        byte[] content = "<!ELEMENT e\u00e9 EMPTY>".getBytes(StandardCharsets.ISO_8859_1);
+        CharConversionException e = Assertions.assertThrows(CharConversionException.class,
+                () -> read(new XmlReader.AsciiReader(new ByteArrayInputStream(content))));
+        Assertions.assertEquals("Illegal ASCII character, 0xe9", e.getMessage());
+    }
+}